@@ -0,0 +1,90 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.shaft.driver.SHAFT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares per-action latency of sessions initialized with and without lean mode, against a headless Chrome
+ * loading a local static fixture page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeanModeBenchmark {
+    @Param({"false", "true"})
+    public boolean leanMode;
+
+    private SessionExecutors sessionExecutors;
+    private EngineService engineService;
+    private BrowserService browserService;
+    private ElementService elementService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SHAFT.Properties.web.set().headlessExecution(true);
+        BrowserPool browserPool = new BrowserPool(0, List.of(), LaunchProfile.FULL);
+        sessionExecutors = new SessionExecutors(true);
+        PayloadPager payloadPager = new PayloadPager(DataSize.ofKilobytes(256), DataSize.ofMegabytes(16), Duration.ofMinutes(2));
+        ReportJobs reportJobs = new ReportJobs();
+        engineService = new EngineService(browserPool, new EngineBootstrap(browserPool, false), sessionExecutors, reportJobs,
+                new AllureResultsRetention(DataSize.ofMegabytes(512), Duration.ofDays(1), reportJobs), payloadPager,
+                new ToolMetricsSummary(new SimpleMeterRegistry()));
+        browserService = new BrowserService(payloadPager);
+        elementService = new ElementService(payloadPager);
+        engineService.initializeDriver(BrowserType.CHROME, null, leanMode, null);
+        browserService.navigate(Path.of(getClass().getResource("/fixtures/form.html").toURI()).toUri().toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engineService.quitDriver();
+        sessionExecutors.shutdown();
+    }
+
+    @Benchmark
+    public void click() {
+        elementService.click(locatorStrategy.ID, "username");
+    }
+
+    @Benchmark
+    public void type() {
+        elementService.type(locatorStrategy.ID, "username", "shaft_engine");
+    }
+
+    @Benchmark
+    public String getText() {
+        return elementService.getText(locatorStrategy.TAGNAME, "h1");
+    }
+
+    @Benchmark
+    public boolean isDisplayed() {
+        return elementService.isDisplayed(locatorStrategy.ID, "username");
+    }
+
+    @Benchmark
+    public String getTitle() {
+        return browserService.getTitle();
+    }
+}
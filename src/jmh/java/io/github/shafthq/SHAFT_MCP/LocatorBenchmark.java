@@ -0,0 +1,73 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.shaft.driver.SHAFT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link EngineService#getLocator} for every {@link locatorStrategy}, on cache hits and on cache misses,
+ * against the SHAFT locator builder that was used for ID, NAME and CLASSNAME before the cache was added.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocatorBenchmark {
+    @Param({"ID", "CSSSELECTOR", "CSS", "SELECTOR", "XPATH", "NAME", "TAGNAME", "CLASSNAME"})
+    public locatorStrategy strategy;
+    private long counter;
+
+    /**
+     * The same locator over and over, as agents do within a task.
+     */
+    @Benchmark
+    public By cachedLookup() {
+        return EngineService.getLocator(strategy, value());
+    }
+
+    /**
+     * A new locator every time, so every lookup compiles and evicts.
+     */
+    @Benchmark
+    public By uncachedLookup() {
+        return EngineService.getLocator(strategy, value() + counter++);
+    }
+
+    /**
+     * The SHAFT builder used for ID, NAME and CLASSNAME before native locators and caching.
+     */
+    @Benchmark
+    public By shaftBuilderBaseline() {
+        return switch (strategy) {
+            case ID -> SHAFT.GUI.Locator.hasAnyTagName().hasId(value()).build();
+            case NAME -> SHAFT.GUI.Locator.hasAnyTagName().hasAttribute("name", value()).build();
+            case CLASSNAME -> SHAFT.GUI.Locator.hasAnyTagName().hasAttribute("class", value()).build();
+            case TAGNAME -> SHAFT.GUI.Locator.hasTagName(value()).build();
+            case XPATH -> By.xpath(value());
+            case CSSSELECTOR, CSS, SELECTOR -> By.cssSelector(value());
+        };
+    }
+
+    private String value() {
+        return switch (strategy) {
+            case XPATH -> "//form[@id='login']//input[@name='username']";
+            case CSSSELECTOR, CSS, SELECTOR -> "form#login input[name='username']";
+            case TAGNAME -> "input";
+            case CLASSNAME -> "btn btn-primary";
+            default -> "username";
+        };
+    }
+}
@@ -0,0 +1,159 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the logging cost a tool call pays on its own thread, for the log statement of {@code element_get_text}
+ * with a short and a large element text:
+ * <ul>
+ *   <li>{@code before}: a synchronous appender flushing every event, and the value logged in full, as the HTTP
+ *   profile used to log.</li>
+ *   <li>{@code after}: the server's {@link LoggingPolicy}, an {@link AsyncAppender} with a bounded queue that drops
+ *   events instead of blocking, and the value truncated by {@link LogValues}.</li>
+ * </ul>
+ * The {@code toolLevel} parameter adds a per-tool level: at {@code WARN} the statement is rejected before its message
+ * is formatted. Events are written to a temporary file with the HTTP console pattern.
+ * <p>
+ * Back to back, the log statements outrun the file, so the {@code after} queue fills up and most events take the
+ * cheap discard path. The {@code workTokens} parameter burns CPU between statements, as a tool call does around its log
+ * statement, so that the queue keeps up; compare the timings against the same {@code workTokens} only. At the end of
+ * each trial the benchmark waits for the queue to drain and prints how many events were logged, written and dropped,
+ * so that a timing measured with dropped events can be told apart.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+    @Param({"before", "after"})
+    public String policy;
+    @Param({"64", "65536"})
+    public int valueChars;
+    @Param({"none", "WARN"})
+    public String toolLevel;
+    @Param({"0", "20000"})
+    public long workTokens;
+    private final AtomicLong written = new AtomicLong();
+    private LoggerContext context;
+    private Logger logger;
+    private Path logFile;
+    private String text;
+    private CharSequence[] typed;
+    private AsyncAppender async;
+    private long logged;
+
+    @Setup
+    public void setUp() throws IOException {
+        text = "x".repeat(valueChars);
+        typed = new CharSequence[]{text, text};
+        written.set(0);
+        logged = 0;
+        logFile = Files.createTempFile("shaft-mcp-logging", ".log");
+        context = new LoggerContext();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> file = new FileAppender<>() {
+            @Override
+            protected void subAppend(ILoggingEvent event) {
+                super.subAppend(event);
+                written.incrementAndGet();
+            }
+        };
+        file.setContext(context);
+        file.setName("file");
+        file.setFile(logFile.toString());
+        file.setEncoder(encoder);
+        file.setImmediateFlush(true);
+        file.start();
+        Appender<ILoggingEvent> appender = file;
+        if ("after".equals(policy)) {
+            async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("async-file");
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(file);
+            async.start();
+            appender = async;
+            LogValues.maxChars(256);
+        } else {
+            LogValues.maxChars(0);
+        }
+        if (!"none".equals(toolLevel)) {
+            LoggingPolicy.ToolLevelFilter filter = new LoggingPolicy.ToolLevelFilter(
+                    Map.of("element_get_text", Level.toLevel(toolLevel)));
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        logger = context.getLogger(ElementService.class);
+        MDC.put(LoggingPolicy.TOOL_KEY, "element_get_text");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, InterruptedException {
+        MDC.remove(LoggingPolicy.TOOL_KEY);
+        while (async != null && async.getNumberOfElementsInQueue() > 0) {
+            Thread.sleep(10);
+        }
+        // the worker may still be writing the last event it took from the queue
+        Thread.sleep(100);
+        System.out.printf("%n[policy=%s valueChars=%d toolLevel=%s workTokens=%d] logged=%d written=%d dropped=%d%n",
+                policy, valueChars, toolLevel, workTokens, logged, written.get(), logged - written.get());
+        context.stop();
+        LogValues.maxChars(256);
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void getText() {
+        Blackhole.consumeCPU(workTokens);
+        logger.info("Retrieved text '{}' from element with locator: {} - {}", LogValues.truncate(text), "CSS", "div.result");
+        logged++;
+    }
+
+    /**
+     * The log statement of {@code element_type}, whose text values used to be joined before the statement was filtered.
+     */
+    @Benchmark
+    public void type() {
+        Blackhole.consumeCPU(workTokens);
+        Object value = async == null ? String.join(", ", typed) : LogValues.truncate(typed);
+        logger.info("Typed text '{}' into element with locator: {} - {}", value, "CSS", "input.search");
+        logged++;
+    }
+}
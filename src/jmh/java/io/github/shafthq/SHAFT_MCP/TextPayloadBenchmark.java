@@ -0,0 +1,113 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.util.json.JsonParser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Measures the throughput of sending a multi-megabyte page source as a tool result, from the tool's string to the
+ * bytes written to the HTTP response, for both result shapes and both response encodings:
+ * <ul>
+ *   <li>{@code quotedString}: the result of a regular tool, a JSON string literal inside one text block, so the page is
+ *   escaped twice.</li>
+ *   <li>{@code chunkedText}: the result of a tool registered through {@link TextToolSpecifications}, plain text split
+ *   into blocks followed by the page metadata.</li>
+ * </ul>
+ * The {@code wireBytes} counter reports the response bytes written per second; divide it by the operations per second
+ * for the response size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextPayloadBenchmark {
+    @Param({"1", "4", "16"})
+    public int megabytes;
+    @Param({"identity", "gzip"})
+    public String encoding;
+    private String pageSource;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Wire {
+        public long wireBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            wireBytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder page = new StringBuilder(megabytes * 1024 * 1024 + 1024).append("<html><body>");
+        for (int row = 0; page.length() < megabytes * 1024 * 1024; row++) {
+            page.append("<div class=\"row\" data-row=\"").append(row).append("\"><a href=\"/items/").append(row)
+                    .append("?ref=list\" title=\"Item ").append(row).append("\">Item ").append(row)
+                    .append("</a><span style=\"color: #333\">In stock</span></div>\n");
+        }
+        pageSource = page.append("</body></html>").toString();
+    }
+
+    @Benchmark
+    public void quotedString(Wire wire) throws IOException {
+        McpSchema.CallToolResult result = McpSchema.CallToolResult.builder()
+                .content(List.of(new McpSchema.TextContent(JsonParser.toJson(pageSource))))
+                .isError(false)
+                .build();
+        send(result, wire);
+    }
+
+    @Benchmark
+    public void chunkedText(Wire wire) throws IOException {
+        TextPage page = new TextPage(pageSource, 0, pageSource.length(), null, null);
+        McpSchema.CallToolResult result = TextToolSpecifications.toTextResult(McpSchema.CallToolResult.builder()
+                .content(List.of(new McpSchema.TextContent(JsonParser.toJson(page))))
+                .isError(false)
+                .build(), 65536);
+        send(result, wire);
+    }
+
+    private void send(McpSchema.CallToolResult result, Wire wire) throws IOException {
+        CountingOutputStream response = new CountingOutputStream();
+        try (OutputStream body = "gzip".equals(encoding) ? new GZIPOutputStream(response, 8192) : response) {
+            body.write(JsonParser.toJson(result).getBytes(StandardCharsets.UTF_8));
+        }
+        wire.wireBytes += response.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.shaft.driver.SHAFT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.springframework.ai.support.ToolCallbacks;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.util.unit.DataSize;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the per-call overhead of tool dispatch: JSON argument deserialization, reflective invocation,
+ * result serialization and the session/metrics decorators applied in {@link ShaftMcpApplication#shaftTools}.
+ * The callbacks are built from the real services, and the decorated ones by {@link ShaftMcpApplication#shaftTools}
+ * itself, so their signatures and decorators cannot drift from the registered tools. The session's browser is a
+ * no-op WebDriver in lean mode, so no browser is involved and each call includes only the services' own locator
+ * resolution and logging.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToolDispatchBenchmark {
+    private static final Map<String, String> inputs = Map.of(
+            "element_click", """
+                    {"locatorStrategy":"CSS","locatorValue":"form#login button[type='submit']"}""",
+            "element_type", """
+                    {"locatorStrategy":"NAME","locatorValue":"username","textValue":["shaft_engine"]}""",
+            "element_get_dom_attribute", """
+                    {"locatorStrategy":"XPATH","locatorValue":"(//a)[1]","domAttributeName":"href"}""",
+            "actions_batch", """
+                    {"actions":[{"operation":"NAVIGATE","value":"https://example.com"},
+                    {"operation":"TYPE","locatorStrategy":"NAME","locatorValue":"q","value":"shaft"},
+                    {"operation":"CLICK","locatorStrategy":"CSS","locatorValue":"button"},
+                    {"operation":"GET_TITLE"}],"stopOnFailure":true}""");
+
+    @Param({"element_click", "element_type", "element_get_dom_attribute", "actions_batch"})
+    public String tool;
+    private ToolCallback rawCallback;
+    private ToolCallback decoratedCallback;
+    private SessionExecutors sessionExecutors;
+    private String input;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BrowserPool browserPool = new BrowserPool(0, List.of(), LaunchProfile.FULL);
+        sessionExecutors = new SessionExecutors(true);
+        PayloadPager payloadPager = new PayloadPager(DataSize.ofKilobytes(256), DataSize.ofMegabytes(16), Duration.ofMinutes(2));
+        ReportJobs reportJobs = new ReportJobs();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EngineService engineService = new EngineService(browserPool, new EngineBootstrap(browserPool, false), sessionExecutors,
+                reportJobs, new AllureResultsRetention(DataSize.ofMegabytes(512), Duration.ofDays(1), reportJobs), payloadPager,
+                new ToolMetricsSummary(meterRegistry));
+        BrowserService browserService = new BrowserService(payloadPager);
+        ElementService elementService = new ElementService(payloadPager);
+        BatchService batchService = new BatchService(browserService, elementService);
+        List<ToolCallback> decoratedCallbacks = new ShaftMcpApplication().shaftTools(engineService, browserService, elementService,
+                batchService, new StorageStateService("storage-states", false, "", 8),
+                new SessionReaper(engineService, browserPool, sessionExecutors, Duration.ofMinutes(30), Duration.ofHours(8), Duration.ofMinutes(1)),
+                sessionExecutors, meterRegistry);
+        rawCallback = byName(Arrays.asList(ToolCallbacks.from(elementService, batchService))).get(tool);
+        decoratedCallback = byName(decoratedCallbacks).get(tool);
+        input = inputs.get(tool);
+        SessionRegistry.register(new BrowserSession(SessionContext.DEFAULT_SESSION_ID, new SHAFT.GUI.WebDriver(noOp(WebDriver.class)),
+                BrowserType.CHROME, LaunchProfile.FULL, Instant.now(), true));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SessionRegistry.remove(SessionContext.DEFAULT_SESSION_ID);
+        sessionExecutors.shutdown();
+    }
+
+    /**
+     * Spring AI's method callback alone: argument deserialization, invocation and result serialization.
+     */
+    @Benchmark
+    public String rawDispatch() {
+        return rawCallback.call(input);
+    }
+
+    /**
+     * The same callback wrapped as registered by the server, including the hop to the session's virtual thread.
+     */
+    @Benchmark
+    public String decoratedDispatch() {
+        return decoratedCallback.call(input);
+    }
+
+    private static Map<String, ToolCallback> byName(List<ToolCallback> callbacks) {
+        return callbacks.stream()
+                .collect(Collectors.toMap(callback -> callback.getToolDefinition().name(), Function.identity()));
+    }
+
+    /**
+     * Creates an implementation of a WebDriver interface whose methods do nothing: they return an empty value, or a
+     * no-op implementation of the interface they return, such as an element, navigation or options.
+     */
+    private static <T> T noOp(Class<T> type) {
+        Class<?>[] interfaces = type == WebDriver.class ? new Class<?>[]{WebDriver.class, JavascriptExecutor.class} : new Class<?>[]{type};
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), interfaces, (instance, method, arguments) -> {
+            Class<?> returnType = method.getReturnType();
+            return switch (method.getName()) {
+                case "hashCode" -> System.identityHashCode(instance);
+                case "equals" -> instance == arguments[0];
+                case "toString" -> "NoOp" + type.getSimpleName();
+                default -> returnType == String.class ? "noop"
+                        : returnType == boolean.class ? true
+                        : returnType == int.class ? (Object) 0
+                        : returnType == long.class ? (Object) 0L
+                        : returnType == List.class ? List.of()
+                        : returnType == Set.class ? Set.of()
+                        : returnType == Map.class ? Map.of()
+                        : returnType.isInterface() ? noOp(returnType)
+                        : null;
+            };
+        });
+        return type.cast(proxy);
+    }
+}
@@ -0,0 +1,254 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@code allure-results} directory of a long-lived server bounded.
+ * <ul>
+ *   <li>When a session starts while no other session is active, the results left by earlier sessions are moved to a
+ *   partition under {@code allure-archive}, so reports only read the results of the current session.</li>
+ *   <li>A background compactor removes partitions older than the maximum age, removes the oldest partitions while the
+ *   total size exceeds the maximum size, and replaces identical attachments in a partition with hard links.</li>
+ * </ul>
+ * SHAFT's Allure lifecycle writes all sessions to one directory, so sessions that overlap share a partition.
+ * Live results are never moved while a session owns a browser or a report is being generated, so results are not
+ * separated from their attachments, or moved away from a report that is reading them.
+ */
+@Component
+public class AllureResultsRetention {
+    private static final Logger logger = LoggerFactory.getLogger(AllureResultsRetention.class);
+    private static final DateTimeFormatter partitionTimestamp = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final String COMPACTED_MARKER = ".compacted";
+    private final Path resultsDirectory;
+    private final Path archiveDirectory;
+    private final long maxSizeBytes;
+    private final Duration maxAge;
+    private final ReportJobs reportJobs;
+    private String currentPartitionLabel = "startup";
+
+    public AllureResultsRetention(@Value("${shaft.mcp.allure.max-size:512MB}") DataSize maxSize,
+                                  @Value("${shaft.mcp.allure.max-age:P1D}") Duration maxAge,
+                                  ReportJobs reportJobs) {
+        this.resultsDirectory = Path.of(System.getProperty("user.dir"), "allure-results");
+        this.archiveDirectory = Path.of(System.getProperty("user.dir"), "allure-archive");
+        this.maxSizeBytes = maxSize.toBytes();
+        this.maxAge = maxAge;
+        this.reportJobs = reportJobs;
+    }
+
+    /**
+     * Starts a new results partition for a session, if no other session is active.
+     *
+     * @param sessionId      The session that is starting.
+     * @param otherSessions Whether other sessions currently own a browser.
+     */
+    synchronized void onSessionStart(String sessionId, boolean otherSessions) {
+        if (otherSessions || reportJobs.isBusy()) {
+            return;
+        }
+        rotate();
+        currentPartitionLabel = sessionId;
+    }
+
+    /**
+     * Applies the age and size limits and deduplicates attachments of archived partitions.
+     */
+    @Scheduled(fixedDelayString = "${shaft.mcp.allure.compaction-interval:PT10M}", initialDelayString = "${shaft.mcp.allure.compaction-interval:PT10M}")
+    synchronized void compact() {
+        try {
+            if (sizeOf(resultsDirectory) > maxSizeBytes / 2) {
+                if (!SessionRegistry.all().isEmpty() || reportJobs.isBusy()) {
+                    logger.info("Live Allure results exceed half of the size limit, rotating them once no session or report uses them");
+                } else {
+                    logger.info("Live Allure results exceed half of the size limit, rotating them");
+                    rotate();
+                }
+            }
+            List<Path> partitions = partitions();
+            Instant oldestAllowed = Instant.now().minus(maxAge);
+            for (Path partition : partitions) {
+                if (Files.getLastModifiedTime(partition).toInstant().isBefore(oldestAllowed)) {
+                    delete(partition);
+                } else if (!Files.exists(partition.resolve(COMPACTED_MARKER))) {
+                    deduplicateAttachments(partition);
+                }
+            }
+            long totalSize = sizeOf(resultsDirectory) + sizeOf(archiveDirectory);
+            for (Path partition : partitions()) {
+                if (totalSize <= maxSizeBytes) {
+                    break;
+                }
+                long partitionSize = sizeOf(partition);
+                delete(partition);
+                totalSize -= partitionSize;
+            }
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Failed to compact Allure results", e);
+        }
+    }
+
+    /**
+     * Retrieves the storage statistics.
+     *
+     * @return The live and archived sizes, the number of partitions and the configured limits.
+     */
+    synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        try {
+            stats.put("liveBytes", sizeOf(resultsDirectory));
+            stats.put("archivedBytes", sizeOf(archiveDirectory));
+            stats.put("partitions", partitions().size());
+        } catch (IOException | UncheckedIOException e) {
+            stats.put("error", e.getMessage());
+        }
+        stats.put("maxSizeBytes", maxSizeBytes);
+        stats.put("maxAge", maxAge.toString());
+        return stats;
+    }
+
+    private void rotate() {
+        try {
+            List<Path> results = resultFiles();
+            if (results.isEmpty()) {
+                return;
+            }
+            Path partition = archiveDirectory.resolve(LocalDateTime.now().format(partitionTimestamp) + "-" + currentPartitionLabel);
+            Files.createDirectories(partition);
+            for (Path result : results) {
+                Files.move(result, partition.resolve(result.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+            logger.info("Moved {} Allure result files to {}", results.size(), partition);
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Failed to rotate Allure results", e);
+        }
+    }
+
+    /**
+     * Lists the per-test files of the live results directory.
+     * Files written once at engine setup (environment, categories, executor) and directories such as history stay in place.
+     */
+    private List<Path> resultFiles() throws IOException {
+        if (!Files.isDirectory(resultsDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(resultsDirectory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.contains("-result.") || name.contains("-container.") || name.contains("-attachment");
+                    })
+                    .toList();
+        }
+    }
+
+    /**
+     * Lists the archived partitions, oldest first.
+     */
+    private List<Path> partitions() throws IOException {
+        if (!Files.isDirectory(archiveDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> partitions = Files.list(archiveDirectory)) {
+            return partitions.filter(Files::isDirectory)
+                    .sorted(Comparator.comparing(AllureResultsRetention::lastModified))
+                    .toList();
+        }
+    }
+
+    private void deduplicateAttachments(Path partition) throws IOException {
+        Map<String, Path> canonicalAttachments = new HashMap<>();
+        int deduplicated = 0;
+        try (Stream<Path> files = Files.list(partition)) {
+            for (Path attachment : files.filter(file -> file.getFileName().toString().contains("-attachment")).toList()) {
+                String key = Files.size(attachment) + ":" + sha256(attachment);
+                Path canonical = canonicalAttachments.putIfAbsent(key, attachment);
+                if (canonical != null) {
+                    Files.delete(attachment);
+                    try {
+                        Files.createLink(attachment, canonical);
+                    } catch (IOException | UnsupportedOperationException e) {
+                        // the file system does not support hard links, so keep the copy and stop deduplicating
+                        Files.copy(canonical, attachment);
+                        logger.debug("Hard links are not supported for {}", partition, e);
+                        break;
+                    }
+                    deduplicated++;
+                }
+            }
+        } finally {
+            Files.writeString(partition.resolve(COMPACTED_MARKER), Instant.now().toString());
+        }
+        if (deduplicated > 0) {
+            logger.info("Replaced {} duplicate attachments with hard links in {}", deduplicated, partition);
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try (InputStream input = new DigestInputStream(Files.newInputStream(file), MessageDigest.getInstance("SHA-256"))) {
+            input.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(((DigestInputStream) input).getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long sizeOf(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> {
+                try {
+                    return Files.size(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).sum();
+        }
+    }
+
+    private static void delete(Path partition) throws IOException {
+        try (Stream<Path> files = Files.walk(partition)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+        logger.info("Deleted Allure results partition {}", partition);
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.springframework.ai.tool.annotation.ToolParam;
+
+/**
+ * A single step of an {@code actions_batch} tool call.
+ *
+ * @param operation       The operation to perform.
+ * @param locatorStrategy The strategy to locate the element, required for element operations.
+ * @param locatorValue    The value used with the locator strategy, required for element operations.
+ * @param value           The operation argument: the URL to navigate to, the text to type or set,
+ *                        or the attribute, property or CSS name to read.
+ */
+public record BatchAction(
+        @ToolParam(description = "operation to perform") Operation operation,
+        @ToolParam(required = false, description = "strategy to locate the element, for element operations") locatorStrategy locatorStrategy,
+        @ToolParam(required = false, description = "locator value, for element operations") String locatorValue,
+        @ToolParam(required = false, description = "URL, text, or attribute/property/CSS name, depending on the operation") String value) {
+
+    /**
+     * Operations supported by {@code actions_batch}.
+     */
+    public enum Operation {
+        NAVIGATE, REFRESH, NAVIGATE_BACK, NAVIGATE_FORWARD, GET_TITLE, GET_CURRENT_URL,
+        CLICK, CLICK_JS, DOUBLE_CLICK, HOVER, TYPE, APPEND_TEXT, CLEAR, SET_VALUE_JS,
+        GET_TEXT, GET_DOM_ATTRIBUTE, GET_DOM_PROPERTY, GET_CSS_VALUE, IS_DISPLAYED, IS_ENABLED, IS_SELECTED
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class BatchService {
+    private static final Logger logger = LoggerFactory.getLogger(BatchService.class);
+    private final BrowserService browserService;
+    private final ElementService elementService;
+
+    public BatchService(BrowserService browserService, ElementService elementService) {
+        this.browserService = browserService;
+        this.elementService = elementService;
+    }
+
+    /**
+     * Executes a sequence of browser and element operations back-to-back on the current session's browser,
+     * saving one MCP round trip per step.
+     *
+     * @param actions       The ordered operations to execute.
+     * @param stopOnFailure Whether to stop at the first failed step, defaults to true.
+     * @return The result of every executed step, in order.
+     */
+    @Tool(name = "actions_batch", description = "executes a sequence of browser and element operations in one call and returns per-step results and timings")
+    public List<BatchStepResult> executeBatch(List<BatchAction> actions,
+                                              @ToolParam(required = false, description = "stop at the first failed step, defaults to true") Boolean stopOnFailure) {
+        boolean stop = stopOnFailure == null || stopOnFailure;
+        List<BatchStepResult> results = new ArrayList<>(actions.size());
+        for (int step = 0; step < actions.size(); step++) {
+            BatchAction action = actions.get(step);
+            long start = System.nanoTime();
+            BatchStepResult stepResult;
+            try {
+                String result = execute(action);
+                stepResult = new BatchStepResult(step, action.operation(), true, result, null, elapsedMillis(start));
+            } catch (Exception e) {
+                stepResult = new BatchStepResult(step, action.operation(), false, null, String.valueOf(e.getMessage()), elapsedMillis(start));
+            }
+            results.add(stepResult);
+            if (!stepResult.success() && stop) {
+                logger.warn("Batch stopped at step {} of {} ({})", step + 1, actions.size(), action.operation());
+                break;
+            }
+        }
+        logger.info("Executed {} of {} batch steps", results.size(), actions.size());
+        return results;
+    }
+
+    private String execute(BatchAction action) {
+        locatorStrategy strategy = action.locatorStrategy();
+        String locatorValue = action.locatorValue();
+        String value = action.value();
+        return switch (action.operation()) {
+            case NAVIGATE -> {
+                browserService.navigate(value);
+                yield null;
+            }
+            case REFRESH -> {
+                browserService.refreshPage();
+                yield null;
+            }
+            case NAVIGATE_BACK -> {
+                browserService.navigateBack();
+                yield null;
+            }
+            case NAVIGATE_FORWARD -> {
+                browserService.navigateForward();
+                yield null;
+            }
+            case GET_TITLE -> browserService.getTitle();
+            case GET_CURRENT_URL -> browserService.getCurrentUrl();
+            case CLICK -> {
+                elementService.click(strategy, locatorValue);
+                yield null;
+            }
+            case CLICK_JS -> {
+                elementService.clickUsingJavaScript(strategy, locatorValue);
+                yield null;
+            }
+            case DOUBLE_CLICK -> {
+                elementService.doubleClick(strategy, locatorValue);
+                yield null;
+            }
+            case HOVER -> {
+                elementService.hover(strategy, locatorValue);
+                yield null;
+            }
+            case TYPE -> {
+                elementService.type(strategy, locatorValue, value);
+                yield null;
+            }
+            case APPEND_TEXT -> {
+                elementService.appendText(strategy, locatorValue, value);
+                yield null;
+            }
+            case CLEAR -> {
+                elementService.clear(strategy, locatorValue);
+                yield null;
+            }
+            case SET_VALUE_JS -> {
+                elementService.setValueUsingJavaScript(strategy, locatorValue, value);
+                yield null;
+            }
+            case GET_TEXT -> elementService.getText(strategy, locatorValue);
+            case GET_DOM_ATTRIBUTE -> elementService.getDomAttribute(strategy, locatorValue, value);
+            case GET_DOM_PROPERTY -> elementService.getDomProperty(strategy, locatorValue, value);
+            case GET_CSS_VALUE -> elementService.getCssValue(strategy, locatorValue, value);
+            case IS_DISPLAYED -> String.valueOf(elementService.isDisplayed(strategy, locatorValue));
+            case IS_ENABLED -> String.valueOf(elementService.isEnabled(strategy, locatorValue));
+            case IS_SELECTED -> String.valueOf(elementService.isSelected(strategy, locatorValue));
+        };
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The outcome of a single {@code actions_batch} step.
+ *
+ * @param step           The zero-based index of the step in the batch.
+ * @param operation      The operation that was performed.
+ * @param success        Whether the step succeeded.
+ * @param result         The value returned by the step, if any.
+ * @param error          The failure message, if the step failed.
+ * @param durationMillis How long the step took.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchStepResult(int step, BatchAction.Operation operation, boolean success, String result, String error,
+                              long durationMillis) {
+}
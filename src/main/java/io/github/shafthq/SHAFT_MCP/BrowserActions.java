@@ -0,0 +1,76 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.openqa.selenium.By;
+
+/**
+ * The browser and element actions behind the locator-based tools.
+ * Each session uses either {@link ShaftBrowserActions}, which reports every action through SHAFT,
+ * or {@link LeanBrowserActions}, which drives Selenium directly and only reports failures.
+ */
+interface BrowserActions {
+    void hover(By locator);
+
+    void click(By locator);
+
+    void clickUsingJavascript(By locator);
+
+    void doubleClick(By locator);
+
+    void clickAndHold(By locator);
+
+    void type(By locator, CharSequence... text);
+
+    void typeAppend(By locator, CharSequence... text);
+
+    void setValueUsingJavaScript(By locator, String value);
+
+    void clear(By locator);
+
+    void dropFileToUpload(By locator, String filePath);
+
+    void dragAndDrop(By sourceLocator, By targetLocator);
+
+    void dragAndDropByOffset(By locator, int xOffset, int yOffset);
+
+    String getText(By locator);
+
+    String getDomAttribute(By locator, String name);
+
+    String getDomProperty(By locator, String name);
+
+    String getCssValue(By locator, String name);
+
+    boolean isDisplayed(By locator);
+
+    boolean isEnabled(By locator);
+
+    boolean isSelected(By locator);
+
+    void navigateToURL(String url);
+
+    void refreshCurrentPage();
+
+    void navigateBack();
+
+    void navigateForward();
+
+    void maximizeWindow();
+
+    void setWindowSize(int width, int height);
+
+    void fullScreenWindow();
+
+    void deleteAllCookies();
+
+    void deleteCookie(String name);
+
+    void addCookie(String name, String value);
+
+    String getCookieValue(String name);
+
+    String getAllCookies();
+
+    String getCurrentURL();
+
+    String getCurrentWindowTitle();
+}
@@ -0,0 +1,115 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Measures the memory used by a local browser, summed over its whole process tree (browser, GPU, renderer and
+ * utility processes). Readings come from {@code /proc}, so they are only available on Linux and for browsers running
+ * on this host; remote browsers are not measured.
+ * <p>
+ * Both the resident set size and the proportional set size are reported: RSS counts pages shared between the
+ * browser's processes once per process, while PSS splits them, so PSS is the better figure for capacity planning.
+ */
+final class BrowserMemory {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserMemory.class);
+    private static final Path PROC = Path.of("/proc");
+
+    private BrowserMemory() {
+    }
+
+    /**
+     * The memory used by a browser's process tree.
+     *
+     * @param processes The number of processes in the tree.
+     * @param rssBytes  The summed resident set size.
+     * @param pssBytes  The summed proportional set size, absent when the kernel does not expose it.
+     */
+    record Usage(int processes, long rssBytes, Long pssBytes) {
+    }
+
+    /**
+     * @param driver The browser to measure.
+     * @return The memory used by the browser, empty when it is remote or its processes cannot be found.
+     */
+    static Optional<Usage> measure(WebDriver driver) {
+        if (!Files.isDirectory(PROC) || !(driver instanceof HasCapabilities hasCapabilities)) {
+            return Optional.empty();
+        }
+        try {
+            return findBrowserProcess(hasCapabilities.getCapabilities()).map(BrowserMemory::measureTree);
+        } catch (RuntimeException e) {
+            logger.debug("Failed to measure browser memory", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Finds the root browser process: Firefox reports its process ID, while Chromium browsers are matched by the
+     * user data directory they were started with.
+     */
+    @SuppressWarnings("unchecked")
+    private static Optional<ProcessHandle> findBrowserProcess(Capabilities capabilities) {
+        if (capabilities.getCapability("moz:processID") instanceof Number pid) {
+            return ProcessHandle.of(pid.longValue());
+        }
+        for (String vendor : List.of("goog:chromeOptions", "chrome", "ms:edgeOptions", "msedge")) {
+            if (capabilities.getCapability(vendor) instanceof Map<?, ?> options
+                    && ((Map<String, Object>) options).get("userDataDir") instanceof String userDataDir) {
+                String flag = "--user-data-dir=" + userDataDir;
+                return ProcessHandle.current().descendants()
+                        .filter(process -> process.info().commandLine().map(command -> command.contains(flag)).orElse(false))
+                        .filter(process -> process.info().commandLine().map(command -> !command.contains("--type=")).orElse(false))
+                        .findFirst();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Usage measureTree(ProcessHandle root) {
+        List<ProcessHandle> processes = Stream.concat(Stream.of(root), root.descendants()).toList();
+        long rss = 0;
+        long pss = 0;
+        boolean pssAvailable = true;
+        for (ProcessHandle process : processes) {
+            rss += readKilobytes(PROC.resolve(process.pid() + "/status"), "VmRSS:") * 1024;
+            long processPss = readKilobytes(PROC.resolve(process.pid() + "/smaps_rollup"), "Pss:");
+            if (processPss < 0) {
+                pssAvailable = false;
+            } else {
+                pss += processPss * 1024;
+            }
+        }
+        return new Usage(processes.size(), rss, pssAvailable ? pss : null);
+    }
+
+    /**
+     * Reads a {@code kB} value from a {@code /proc} file.
+     *
+     * @return The value in kilobytes, {@code 0} for a process that exited, or {@code -1} when the field is unavailable.
+     */
+    private static long readKilobytes(Path file, String field) {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.filter(line -> line.startsWith(field))
+                    .findFirst()
+                    .map(line -> Long.parseLong(line.substring(field.length()).trim().split("\\s+")[0]))
+                    .orElse(-1L);
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+}
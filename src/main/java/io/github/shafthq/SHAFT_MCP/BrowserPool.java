@@ -0,0 +1,291 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.shaft.driver.DriverFactory;
+import com.shaft.driver.SHAFT;
+import jakarta.annotation.PreDestroy;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a configurable number of pre-launched, clean browsers per {@link BrowserType} and {@link LaunchProfile} so that
+ * {@code driver_initialize} can hand one out without paying the browser launch cost.
+ * Chromium browsers released by {@code driver_quit} are wiped (windows, cookies, storage of every origin and HTTP
+ * cache) and returned to the pool; other browsers are closed, and the pool is refilled in the background after every
+ * checkout.
+ * The pool is disabled when {@code shaft.mcp.pool.size-per-browser} is {@code 0}, which is the default.
+ */
+@Component
+public class BrowserPool {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserPool.class);
+    private static final Object driverCreationLock = new Object();
+    private static Boolean defaultHeadless;
+
+    private final int sizePerBrowser;
+    private final List<BrowserType> warmBrowsers;
+    private final LaunchProfile defaultLaunchProfile;
+    private final Map<PoolKey, BlockingQueue<SHAFT.GUI.WebDriver>> idleBrowsers = new ConcurrentHashMap<>();
+    private final Map<PoolKey, AtomicBoolean> refillScheduled = new ConcurrentHashMap<>();
+    private final ExecutorService refillExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("shaft-browser-pool").daemon(true).factory());
+    private final AtomicBoolean warming = new AtomicBoolean(false);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder recycled = new LongAdder();
+    private final LongAdder totalCheckoutNanos = new LongAdder();
+    private final AtomicLong maxCheckoutNanos = new AtomicLong();
+
+    public BrowserPool(@Value("${shaft.mcp.pool.size-per-browser:0}") int sizePerBrowser,
+                       @Value("${shaft.mcp.pool.browsers:CHROME}") List<BrowserType> warmBrowsers,
+                       @Value("${shaft.mcp.launch-profile:FULL}") LaunchProfile defaultLaunchProfile) {
+        this.sizePerBrowser = Math.max(0, sizePerBrowser);
+        this.warmBrowsers = List.copyOf(warmBrowsers);
+        this.defaultLaunchProfile = defaultLaunchProfile;
+    }
+
+    /**
+     * A pool partition: browsers are only interchangeable when both their type and launch profile match.
+     */
+    private record PoolKey(BrowserType browserType, LaunchProfile launchProfile) {
+        @Override
+        public String toString() {
+            return browserType + "/" + launchProfile;
+        }
+    }
+
+    /**
+     * Launches a new browser of the given type with the given profile's options.
+     * The target browser and headless mode are global SHAFT properties, so launches are serialized.
+     *
+     * @param browserType   The type of browser to launch.
+     * @param launchProfile The launch options to use.
+     * @return The launched WebDriver instance.
+     */
+    static SHAFT.GUI.WebDriver launch(BrowserType browserType, LaunchProfile launchProfile) {
+        synchronized (driverCreationLock) {
+            if (defaultHeadless == null) {
+                defaultHeadless = SHAFT.Properties.web.headlessExecution();
+            }
+            SHAFT.Properties.web.set().targetBrowserName(browserType.name());
+            SHAFT.Properties.web.set().headlessExecution(launchProfile.headless() || defaultHeadless);
+            MutableCapabilities options = launchProfile.options(browserType);
+            if (options == null) {
+                return new SHAFT.GUI.WebDriver();
+            }
+            return new SHAFT.GUI.WebDriver(DriverFactory.DriverType.valueOf(browserType.name()), options);
+        }
+    }
+
+    /**
+     * @return The launch profile used when {@code driver_initialize} does not name one, and for warming the pool.
+     */
+    LaunchProfile defaultLaunchProfile() {
+        return defaultLaunchProfile;
+    }
+
+    /**
+     * Starts keeping the configured browsers warm.
+     * Must only be called once the SHAFT engine has been set up.
+     */
+    void startWarming() {
+        if (sizePerBrowser > 0 && warming.compareAndSet(false, true)) {
+            logger.info("Warming browser pool with {} {} browser(s) per type for {}", sizePerBrowser, defaultLaunchProfile, warmBrowsers);
+            warmBrowsers.forEach(browserType -> scheduleRefill(new PoolKey(browserType, defaultLaunchProfile)));
+        }
+    }
+
+    /**
+     * Hands out a browser of the given type, taking a pre-launched one when available
+     * and launching a new one otherwise.
+     *
+     * @param browserType   The type of browser to check out.
+     * @param launchProfile The launch options the browser must have been started with.
+     * @return A clean WebDriver instance owned by the caller.
+     */
+    SHAFT.GUI.WebDriver checkout(BrowserType browserType, LaunchProfile launchProfile) {
+        long start = System.nanoTime();
+        PoolKey key = new PoolKey(browserType, launchProfile);
+        SHAFT.GUI.WebDriver driver = idle(key).poll();
+        boolean hit = driver != null;
+        if (hit) {
+            hits.increment();
+        } else {
+            misses.increment();
+            driver = launch(browserType, launchProfile);
+        }
+        long elapsed = System.nanoTime() - start;
+        totalCheckoutNanos.add(elapsed);
+        maxCheckoutNanos.accumulateAndGet(elapsed, Math::max);
+        logger.debug("Checked out {} browser in {} ms ({})", key,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), hit ? "hit" : "miss");
+        if (warming.get() && launchProfile == defaultLaunchProfile && warmBrowsers.contains(browserType)) {
+            scheduleRefill(key);
+        }
+        return driver;
+    }
+
+    /**
+     * Takes back a browser that is no longer used by its session.
+     * The browser is reset and kept for the next checkout if the pool has room for it, otherwise it is closed.
+     *
+     * @param browserType   The type of the released browser.
+     * @param launchProfile The launch profile of the released browser.
+     * @param driver        The released WebDriver instance.
+     */
+    void release(BrowserType browserType, LaunchProfile launchProfile, SHAFT.GUI.WebDriver driver) {
+        PoolKey key = new PoolKey(browserType, launchProfile);
+        BlockingQueue<SHAFT.GUI.WebDriver> idle = idle(key);
+        if (sizePerBrowser == 0 || idle.size() >= sizePerBrowser) {
+            driver.quit();
+            return;
+        }
+        refillExecutor.execute(() -> {
+            if (idle.size() < sizePerBrowser && reset(driver)) {
+                idle.offer(driver);
+                recycled.increment();
+                logger.debug("Returned reset {} browser to the pool", key);
+            } else {
+                quitQuietly(driver);
+            }
+        });
+    }
+
+    /**
+     * Closes a browser that must not be reused, such as one replaced because of its memory use.
+     *
+     * @param driver The WebDriver instance to close.
+     */
+    void discard(SHAFT.GUI.WebDriver driver) {
+        refillExecutor.execute(() -> quitQuietly(driver));
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    int idleCount() {
+        return idleBrowsers.values().stream().mapToInt(BlockingQueue::size).sum();
+    }
+
+    /**
+     * Retrieves the pool statistics used to size it.
+     *
+     * @return The configured size, idle browsers per type and profile, hit/miss counts and checkout latency.
+     */
+    Map<String, Object> stats() {
+        long checkouts = hits.sum() + misses.sum();
+        Map<String, Object> idle = new LinkedHashMap<>();
+        idleBrowsers.forEach((key, queue) -> idle.put(key.toString(), queue.size()));
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sizePerBrowser", sizePerBrowser);
+        stats.put("defaultLaunchProfile", defaultLaunchProfile);
+        stats.put("idle", idle);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("recycled", recycled.sum());
+        stats.put("averageCheckoutMillis", checkouts == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalCheckoutNanos.sum() / checkouts));
+        stats.put("maxCheckoutMillis", TimeUnit.NANOSECONDS.toMillis(maxCheckoutNanos.get()));
+        return stats;
+    }
+
+    private BlockingQueue<SHAFT.GUI.WebDriver> idle(PoolKey key) {
+        return idleBrowsers.computeIfAbsent(key, newKey -> new LinkedBlockingQueue<>());
+    }
+
+    private void scheduleRefill(PoolKey key) {
+        AtomicBoolean scheduled = refillScheduled.computeIfAbsent(key, newKey -> new AtomicBoolean(false));
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        refillExecutor.execute(() -> {
+            try {
+                BlockingQueue<SHAFT.GUI.WebDriver> idle = idle(key);
+                while (idle.size() < sizePerBrowser) {
+                    idle.offer(launch(key.browserType(), key.launchProfile()));
+                    logger.debug("Pre-launched {} browser, {} idle", key, idle.size());
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to pre-launch {} browser", key, e);
+            } finally {
+                scheduled.set(false);
+            }
+        });
+    }
+
+    /**
+     * Resets a browser to a clean state: extra windows closed, blank page loaded, and the cookies, storage of every
+     * origin (localStorage, IndexedDB, Cache Storage, service workers...) and HTTP cache wiped through DevTools.
+     * Browsers without DevTools cannot be wiped completely, so they are never reused: the next agent would inherit the
+     * previous agent's logins.
+     *
+     * @param driver The browser to reset.
+     * @return true if the browser was reset and can be reused, false otherwise.
+     */
+    private static boolean reset(SHAFT.GUI.WebDriver driver) {
+        try {
+            WebDriver webDriver = driver.getDriver();
+            if (!(webDriver instanceof HasCdp cdp)) {
+                logger.debug("Browser cannot be wiped without DevTools, it will be closed instead");
+                return false;
+            }
+            List<String> windowHandles = new ArrayList<>(webDriver.getWindowHandles());
+            for (String windowHandle : windowHandles.subList(1, windowHandles.size())) {
+                webDriver.switchTo().window(windowHandle).close();
+            }
+            webDriver.switchTo().window(windowHandles.getFirst());
+            // leave the page first, so its scripts cannot write storage again after it is cleared
+            webDriver.navigate().to("about:blank");
+            cdp.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", "*", "storageTypes", "all"));
+            cdp.executeCdpCommand("Network.clearBrowserCache", Map.of());
+            cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to reset browser, it will be closed instead", e);
+            return false;
+        }
+    }
+
+    private static void quitQuietly(SHAFT.GUI.WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.warn("Failed to close browser", e);
+        }
+    }
+
+    /**
+     * Closes all idle browsers when the application shuts down.
+     */
+    @PreDestroy
+    void shutdown() {
+        refillExecutor.shutdownNow();
+        idleBrowsers.values().forEach(idle -> {
+            SHAFT.GUI.WebDriver driver;
+            while ((driver = idle.poll()) != null) {
+                quitQuietly(driver);
+            }
+        });
+    }
+}
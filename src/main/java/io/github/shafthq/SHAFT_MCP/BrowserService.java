@@ -1,28 +1,48 @@
 package io.github.shafthq.SHAFT_MCP;
 
 import com.shaft.driver.SHAFT;
+import org.openqa.selenium.JavascriptExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Map;
+
+import static io.github.shafthq.SHAFT_MCP.EngineService.getActions;
 import static io.github.shafthq.SHAFT_MCP.EngineService.getDriver;
+import static io.github.shafthq.SHAFT_MCP.EngineService.getSession;
 
 @Service
 public class BrowserService {
     private static final Logger logger = LoggerFactory.getLogger(BrowserService.class);
+    private static final int DEFAULT_OUTLINE_LIMIT = 200;
+    private static final int MAX_OUTLINE_LIMIT = 1000;
+    private static final int DEFAULT_OUTLINE_TEXT_LENGTH = 80;
+    private static final int DEFAULT_QUIET_MILLIS = 500;
+    private static final long DEFAULT_WAIT_TIMEOUT_MILLIS = 10_000;
+    private final PayloadPager payloadPager;
+
+    public BrowserService(PayloadPager payloadPager) {
+        this.payloadPager = payloadPager;
+    }
 
     /**
      * Navigates the browser to the specified URL.
      *
      * @param targetUrl The URL to navigate to.
+     * @return The load statistics of the navigation.
      */
-    @Tool(name = "browser_navigate", description = "navigates to a URL")
-    public void navigate(String targetUrl) {
+    @Tool(name = "browser_navigate", description = "navigates to a URL and reports load time, transferred bytes and the savings of the session's network profile")
+    public NavigationStats navigate(String targetUrl) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
-            driver.browser().navigateToURL(targetUrl);
-            logger.info("Navigated to URL: {}", targetUrl);
+            BrowserSession session = getSession();
+            session.actions().navigateToURL(targetUrl);
+            NavigationStats stats = session.networkBlocker().recordNavigation(targetUrl);
+            logger.info("Navigated to URL: {} ({} ms, {} bytes)", targetUrl, stats.loadTimeMillis(), stats.transferredBytes());
+            return stats;
         } catch (Exception e) {
             logger.error("Failed to navigate to URL: {}", targetUrl, e);
             throw e;
@@ -55,8 +75,8 @@ public class BrowserService {
     @Tool(name = "browser_refresh", description = "refreshes the current page")
     public void refreshPage() {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
-            driver.browser().refreshCurrentPage();
+            BrowserActions actions = getActions();
+            actions.refreshCurrentPage();
             logger.info("Page refreshed successfully.");
         } catch (Exception e) {
             logger.error("Failed to refresh the page.", e);
@@ -70,8 +90,8 @@ public class BrowserService {
     @Tool(name = "browser_navigate_back", description = "navigates back to the previous page")
     public void navigateBack() {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
-            driver.browser().navigateBack();
+            BrowserActions actions = getActions();
+            actions.navigateBack();
             logger.info("Navigated back to the previous page.");
         } catch (Exception e) {
             logger.error("Failed to navigate back.", e);
@@ -85,8 +105,8 @@ public class BrowserService {
     @Tool(name = "browser_navigate_forward", description = "navigates forward to the next page")
     public void navigateForward() {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
-            driver.browser().navigateForward();
+            BrowserActions actions = getActions();
+            actions.navigateForward();
             logger.info("Navigated forward to the next page.");
         } catch (Exception e) {
             logger.error("Failed to navigate forward.", e);
@@ -100,8 +120,8 @@ public class BrowserService {
     @Tool(name = "browser_maximize_window", description = "maximizes the browser window")
     public void maximizeWindow() {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
-            driver.browser().maximizeWindow();
+            BrowserActions actions = getActions();
+            actions.maximizeWindow();
             logger.info("Browser window maximized.");
         } catch (Exception e) {
             logger.error("Failed to maximize browser window.", e);
@@ -118,8 +138,8 @@ public class BrowserService {
     @Tool(name = "browser_set_window_size", description = "sets the browser window to a specific size")
     public void setWindowSize(int width, int height) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
-            driver.browser().setWindowSize(width, height);
+            BrowserActions actions = getActions();
+            actions.setWindowSize(width, height);
             logger.info("Browser window size set to {}x{}.", width, height);
         } catch (Exception e) {
             logger.error("Failed to set browser window size to {}x{}.", width, height, e);
@@ -133,8 +153,8 @@ public class BrowserService {
     @Tool(name = "browser_fullscreen_window", description = "sets the browser window to fullscreen mode")
     public void fullscreenWindow() {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
-            driver.browser().fullScreenWindow();
+            BrowserActions actions = getActions();
+            actions.fullScreenWindow();
             logger.info("Browser window set to fullscreen mode.");
         } catch (Exception e) {
             logger.error("Failed to set browser window to fullscreen mode.", e);
@@ -148,8 +168,8 @@ public class BrowserService {
     @Tool(name = "browser_delete_all_cookies", description = "deletes all cookies")
     public void deleteAllCookies() {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
-            driver.browser().deleteAllCookies();
+            BrowserActions actions = getActions();
+            actions.deleteAllCookies();
             logger.info("All cookies deleted.");
         } catch (Exception e) {
             logger.error("Failed to delete all cookies.", e);
@@ -165,8 +185,8 @@ public class BrowserService {
     @Tool(name = "browser_delete_cookie", description = "deletes a specific cookie by name")
     public void deleteCookie(String cookieName) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
-            driver.browser().deleteCookie(cookieName);
+            BrowserActions actions = getActions();
+            actions.deleteCookie(cookieName);
             logger.info("Cookie '{}' deleted.", cookieName);
         } catch (Exception e) {
             logger.error("Failed to delete cookie '{}'.", cookieName, e);
@@ -183,11 +203,11 @@ public class BrowserService {
     @Tool(name = "browser_add_cookie", description = "adds a cookie")
     public void addCookie(String name, String value) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
-            driver.browser().addCookie(name, value);
-            logger.info("Cookie added: {}={}", name, value);
+            BrowserActions actions = getActions();
+            actions.addCookie(name, value);
+            logger.info("Cookie added: {}={}", name, LogValues.truncate(value));
         } catch (Exception e) {
-            logger.error("Failed to add cookie: {}={}", name, value, e);
+            logger.error("Failed to add cookie: {}={}", name, LogValues.truncate(value), e);
             throw e;
         }
     }
@@ -201,9 +221,9 @@ public class BrowserService {
     @Tool(name = "browser_get_cookie", description = "gets a cookie by name")
     public String getCookie(String cookieName) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
-            String cookieValue = driver.browser().getCookie(cookieName).getValue();
-            logger.info("Retrieved cookie: {}={}", cookieName, cookieValue);
+            BrowserActions actions = getActions();
+            String cookieValue = actions.getCookieValue(cookieName);
+            logger.info("Retrieved cookie: {}={}", cookieName, LogValues.truncate(cookieValue));
             return cookieValue;
         } catch (Exception e) {
             logger.error("Failed to retrieve cookie '{}'.", cookieName, e);
@@ -216,12 +236,11 @@ public class BrowserService {
      *
      * @return A string representation of all cookies.
      */
-    @Tool(name = "browser_get_all_cookies", description = "gets all cookies")
     public String getAllCookies() {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
-            String allCookies = driver.browser().getAllCookies().toString();
-            logger.info("Retrieved all cookies: {}", allCookies);
+            BrowserActions actions = getActions();
+            String allCookies = actions.getAllCookies();
+            logger.info("Retrieved all cookies: {}", LogValues.truncate(allCookies));
             return allCookies;
         } catch (Exception e) {
             logger.error("Failed to retrieve all cookies.", e);
@@ -229,6 +248,26 @@ public class BrowserService {
         }
     }
 
+    /**
+     * Retrieves all cookies from the current browser session, one page at a time when they exceed the payload budget.
+     *
+     * @param cursor   The cursor returned with the previous page, or null for the first page.
+     * @param maxBytes The maximum page size in bytes, capped by the server's payload budget.
+     * @return A page of the cookies, with their total size and the cursor of the next page.
+     */
+    @Tool(name = "browser_get_all_cookies", description = "gets all cookies; many cookies are returned in pages, pass the returned nextCursor to get the next page")
+    public TextPage getAllCookies(@ToolParam(required = false, description = "nextCursor returned with the previous page") String cursor,
+                                  @ToolParam(required = false, description = "maximum page size in bytes, capped by the server's payload budget") Integer maxBytes) {
+        try {
+            TextPage page = payloadPager.page(this::getAllCookies, cursor, maxBytes);
+            logger.info("Returned cookie bytes {} of {}", page.offset(), page.totalBytes());
+            return page;
+        } catch (Exception e) {
+            logger.error("Failed to retrieve cookie page.", e);
+            throw e;
+        }
+    }
+
     /**
      * Retrieves the current URL of the browser.
      *
@@ -237,8 +276,8 @@ public class BrowserService {
     @Tool(name = "browser_get_current_url", description = "gets current URL")
     public String getCurrentUrl() {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
-            String currentUrl = driver.browser().getCurrentURL();
+            BrowserActions actions = getActions();
+            String currentUrl = actions.getCurrentURL();
             logger.info("Current URL retrieved: {}", currentUrl);
             return currentUrl;
         } catch (Exception e) {
@@ -255,13 +294,92 @@ public class BrowserService {
     @Tool(name = "browser_get_title", description = "gets current page title")
     public String getTitle() {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
-            String title = driver.browser().getCurrentWindowTitle();
-            logger.info("Page title retrieved: {}", title);
+            BrowserActions actions = getActions();
+            String title = actions.getCurrentWindowTitle();
+            logger.info("Page title retrieved: {}", LogValues.truncate(title));
             return title;
         } catch (Exception e) {
             logger.error("Failed to retrieve page title.", e);
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves a compact outline of the current page: only the visible, interactive or text-bearing elements,
+     * each with a ready-to-use locator strategy and value for the element tools.
+     * This is a much smaller alternative to the page source for finding locators.
+     *
+     * @param offset        The index of the first outline node to return, for paging.
+     * @param limit         The maximum number of nodes to return.
+     * @param maxTextLength The maximum length of each node's text.
+     * @return The outline nodes, the total node count, and the offset of the next page if there is one.
+     */
+    @Tool(name = "browser_get_page_outline", description = "gets a compact outline of the visible, interactive and text elements of the current page with ready-to-use locators")
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getPageOutline(
+            @ToolParam(required = false, description = "index of the first node to return, defaults to 0") Integer offset,
+            @ToolParam(required = false, description = "maximum number of nodes to return, defaults to 200, at most 1000") Integer limit,
+            @ToolParam(required = false, description = "maximum length of each node's text, defaults to 80") Integer maxTextLength) {
+        int pageOffset = offset == null ? 0 : Math.max(0, offset);
+        int pageLimit = limit == null ? DEFAULT_OUTLINE_LIMIT : Math.clamp(limit, 1, MAX_OUTLINE_LIMIT);
+        int textLength = maxTextLength == null ? DEFAULT_OUTLINE_TEXT_LENGTH : Math.max(1, maxTextLength);
+        try {
+            SHAFT.GUI.WebDriver driver = getDriver();
+            Map<String, Object> outline = (Map<String, Object>) ((JavascriptExecutor) driver.getDriver())
+                    .executeScript(PageScripts.get("page-outline.js"), pageOffset, pageLimit, textLength);
+            logger.info("Retrieved page outline nodes {} to {} of {}", pageOffset, pageOffset + pageLimit, outline.get("total"));
+            return outline;
+        } catch (Exception e) {
+            logger.error("Failed to retrieve page outline.", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits inside the browser until the page is stable: loaded, with no fetch/XHR request in flight, and with no DOM
+     * change or new resource for the quiet period.
+     *
+     * @param quietMillis   How long the page must stay unchanged, defaults to 500 ms.
+     * @param timeoutMillis How long to wait, defaults to 10 seconds.
+     * @return Whether the page became stable, how long it took and what was still happening.
+     */
+    @Tool(name = "page_wait_for_stable", description = "waits until the page has loaded, has no pending fetch/XHR requests and its DOM has not changed for a quiet period")
+    @SuppressWarnings("unchecked")
+    public WaitResult waitForStable(@ToolParam(required = false, description = "time in milliseconds the page must stay unchanged, defaults to 500") Integer quietMillis,
+                                    @ToolParam(required = false, description = "maximum time to wait in milliseconds, defaults to 10000") Integer timeoutMillis) {
+        try {
+            int quiet = quietMillis == null ? DEFAULT_QUIET_MILLIS : Math.max(0, quietMillis);
+            Duration timeout = Duration.ofMillis(timeoutMillis == null ? DEFAULT_WAIT_TIMEOUT_MILLIS : Math.max(0, timeoutMillis));
+            WaitResult result = WaitResult.from((Map<String, Object>) PageScripts.executeAsync(getDriver().getDriver(), timeout,
+                    PageScripts.get("wait-for-stable.js"), quiet, timeout.toMillis()));
+            if (result.satisfied()) {
+                logger.info("Page became stable after {} ms", result.elapsedMillis());
+            } else {
+                logger.warn("Page did not become stable within {} ms ({} requests pending)", timeout.toMillis(), result.pendingRequests());
+            }
+            return result;
+        } catch (Exception e) {
+            logger.error("Failed to wait for the page to become stable.", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Sets the resource types and URL patterns the current session's browser should not load.
+     *
+     * @param networkProfile The requests to block, or {@code null} to load everything again.
+     * @return How requests are blocked and the resource types and URL patterns being blocked.
+     */
+    @Tool(name = "browser_set_network_profile", description = "blocks resource types (images, fonts, media, stylesheets), URL patterns and trackers for faster page loads; pass no profile to load everything again")
+    public NetworkProfileStatus setNetworkProfile(@ToolParam(required = false, description = "requests to block, omit to stop blocking") NetworkProfile networkProfile) {
+        try {
+            NetworkProfileStatus status = getSession().networkBlocker().apply(networkProfile);
+            logger.info("Network profile set: blocking {} resource types and {} URL patterns through {}",
+                    status.blockedResourceTypes().size(), status.blockedUrlPatterns().size(), status.mechanism());
+            return status;
+        } catch (Exception e) {
+            logger.error("Failed to set the network profile.", e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.shaft.driver.SHAFT;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A browser owned by a single MCP session, together with the state the server keeps for that session.
+ */
+final class BrowserSession {
+    private final String sessionId;
+    private final SHAFT.GUI.WebDriver driver;
+    private final BrowserType browserType;
+    private final LaunchProfile launchProfile;
+    private final Instant createdAt;
+    private final Instant browserStartedAt;
+    private final boolean leanMode;
+    private final BrowserActions actions;
+    private final PageSourceTracker pageSourceTracker = new PageSourceTracker();
+    private final PagedResults pagedResults;
+    private final NetworkBlocker networkBlocker;
+    private final AtomicInteger activeCalls;
+    private volatile Instant lastActivity;
+    private volatile McpSyncServerExchange exchange;
+
+    /**
+     * @param sessionId     The MCP session that owns this browser.
+     * @param driver        The SHAFT WebDriver instance.
+     * @param browserType   The type of browser that was launched.
+     * @param launchProfile The launch options the browser was started with.
+     * @param createdAt     The time the browser was handed to the session.
+     * @param leanMode      Whether actions skip SHAFT's per-action reporting.
+     */
+    BrowserSession(String sessionId, SHAFT.GUI.WebDriver driver, BrowserType browserType, LaunchProfile launchProfile,
+                   Instant createdAt, boolean leanMode) {
+        this.sessionId = sessionId;
+        this.driver = driver;
+        this.browserType = browserType;
+        this.launchProfile = launchProfile;
+        this.createdAt = createdAt;
+        this.browserStartedAt = createdAt;
+        this.lastActivity = createdAt;
+        this.leanMode = leanMode;
+        this.actions = actions(driver, leanMode);
+        this.pagedResults = new PagedResults();
+        this.networkBlocker = new NetworkBlocker(driver.getDriver());
+        this.activeCalls = new AtomicInteger();
+    }
+
+    /**
+     * Continues a session with a replacement browser. The session keeps its age, activity, in-flight call count,
+     * MCP exchange and paged results, so replacing a browser does not make an abandoned session look new or active.
+     *
+     * @param previous The session whose browser is replaced.
+     * @param driver   The replacement browser.
+     */
+    BrowserSession(BrowserSession previous, SHAFT.GUI.WebDriver driver) {
+        this.sessionId = previous.sessionId;
+        this.driver = driver;
+        this.browserType = previous.browserType;
+        this.launchProfile = previous.launchProfile;
+        this.createdAt = previous.createdAt;
+        this.browserStartedAt = Instant.now();
+        this.lastActivity = previous.lastActivity;
+        this.exchange = previous.exchange;
+        this.leanMode = previous.leanMode;
+        this.actions = actions(driver, leanMode);
+        this.pagedResults = previous.pagedResults;
+        this.networkBlocker = new NetworkBlocker(driver.getDriver());
+        // shared, so calls that began on the previous browser still count until they end
+        this.activeCalls = previous.activeCalls;
+    }
+
+    private static BrowserActions actions(SHAFT.GUI.WebDriver driver, boolean leanMode) {
+        TracedCommandExecutor.install(driver.getDriver());
+        return Tracing.wrap(BrowserActions.class,
+                leanMode ? new LeanBrowserActions(driver.getDriver()) : new ShaftBrowserActions(driver),
+                leanMode ? "webdriver" : "shaft");
+    }
+
+    String sessionId() {
+        return sessionId;
+    }
+
+    SHAFT.GUI.WebDriver driver() {
+        return driver;
+    }
+
+    BrowserType browserType() {
+        return browserType;
+    }
+
+    LaunchProfile launchProfile() {
+        return launchProfile;
+    }
+
+    /**
+     * @return The time the session got its first browser.
+     */
+    Instant createdAt() {
+        return createdAt;
+    }
+
+    /**
+     * @return The time the session's current browser was handed to it, later than {@link #createdAt()} once the
+     * browser has been replaced.
+     */
+    Instant browserStartedAt() {
+        return browserStartedAt;
+    }
+
+    /**
+     * @return The time a tool call of this session last started or finished.
+     */
+    Instant lastActivity() {
+        return lastActivity;
+    }
+
+    /**
+     * @return The number of tool calls of this session that are running or waiting for their turn.
+     */
+    int activeCalls() {
+        return activeCalls.get();
+    }
+
+    /**
+     * @return The MCP exchange of the session's last tool call, or {@code null} if it is not known.
+     */
+    McpSyncServerExchange exchange() {
+        return exchange;
+    }
+
+    /**
+     * Records the start of a tool call of this session.
+     */
+    void beginCall() {
+        activeCalls.incrementAndGet();
+        lastActivity = Instant.now();
+    }
+
+    /**
+     * Records the end of a tool call of this session.
+     */
+    void endCall() {
+        activeCalls.decrementAndGet();
+        lastActivity = Instant.now();
+    }
+
+    /**
+     * Records tool call activity and the exchange it was made through.
+     *
+     * @param exchange The MCP exchange of the call, or {@code null} if it is not known.
+     */
+    void touch(McpSyncServerExchange exchange) {
+        lastActivity = Instant.now();
+        if (exchange != null) {
+            this.exchange = exchange;
+        }
+    }
+
+    boolean leanMode() {
+        return leanMode;
+    }
+
+    /**
+     * @return The actions used by the locator-based tools, with or without per-action reporting.
+     */
+    BrowserActions actions() {
+        return actions;
+    }
+
+    /**
+     * @return The tracker holding the last page source snapshot returned to this session.
+     */
+    PageSourceTracker pageSourceTracker() {
+        return pageSourceTracker;
+    }
+
+    /**
+     * @return The full text of this session's paged results.
+     */
+    PagedResults pagedResults() {
+        return pagedResults;
+    }
+
+    /**
+     * @return The blocker applying this session's network profile and measuring its navigations.
+     */
+    NetworkBlocker networkBlocker() {
+        return networkBlocker;
+    }
+}
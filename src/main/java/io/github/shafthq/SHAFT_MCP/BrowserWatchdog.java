@@ -0,0 +1,199 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import org.openqa.selenium.JavascriptExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Samples the memory of every session's browser in the background and replaces browsers that grew past the configured
+ * limits, so that long agent sessions do not exhaust the host.
+ * <ul>
+ *   <li>The JavaScript heap of the current page is read through {@code performance.memory}, which only Chromium
+ *   browsers provide.</li>
+ *   <li>The resident memory of the browser's process tree is read through {@link BrowserMemory}, which only measures
+ *   local browsers.</li>
+ * </ul>
+ * Sampling and recycling run in the session's own order, between its tool calls, on the watchdog's own thread so that
+ * a slow browser does not hold up the other scheduled tasks. Sessions with a tool call running or waiting are skipped
+ * until the next check. A recycled browser gets the URL, cookies and storage of the browser it replaces.
+ */
+@Component
+public class BrowserWatchdog {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserWatchdog.class);
+    private static final String JS_HEAP_SCRIPT = """
+            return window.performance && performance.memory
+                ? {used: performance.memory.usedJSHeapSize, limit: performance.memory.jsHeapSizeLimit}
+                : null;""";
+    private final EngineService engineService;
+    private final BrowserService browserService;
+    private final StorageStateService storageStateService;
+    private final SessionExecutors sessionExecutors;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long maxJsHeapBytes;
+    private final long maxRssBytes;
+    private final Duration minBrowserAge;
+    private final ExecutorService watchdogExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("shaft-browser-watchdog").daemon(true).factory());
+    private final AtomicBoolean checking = new AtomicBoolean();
+
+    public BrowserWatchdog(EngineService engineService, BrowserService browserService, StorageStateService storageStateService,
+                           SessionExecutors sessionExecutors, MeterRegistry meterRegistry,
+                           @Value("${shaft.mcp.watchdog.enabled:true}") boolean enabled,
+                           @Value("${shaft.mcp.watchdog.max-js-heap:1GB}") DataSize maxJsHeap,
+                           @Value("${shaft.mcp.watchdog.max-rss:3GB}") DataSize maxRss,
+                           @Value("${shaft.mcp.watchdog.min-browser-age:PT5M}") Duration minBrowserAge) {
+        this.engineService = engineService;
+        this.browserService = browserService;
+        this.storageStateService = storageStateService;
+        this.sessionExecutors = sessionExecutors;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxJsHeapBytes = maxJsHeap.toBytes();
+        this.maxRssBytes = maxRss.toBytes();
+        this.minBrowserAge = minBrowserAge;
+    }
+
+    /**
+     * Starts a check of every active session's browser on the watchdog's thread, unless the previous check is still
+     * running.
+     */
+    @Scheduled(fixedDelayString = "${shaft.mcp.watchdog.interval:PT30S}", initialDelayString = "${shaft.mcp.watchdog.interval:PT30S}")
+    void check() {
+        if (!enabled || !checking.compareAndSet(false, true)) {
+            return;
+        }
+        watchdogExecutor.execute(() -> {
+            try {
+                checkAll();
+            } finally {
+                checking.set(false);
+            }
+        });
+    }
+
+    /**
+     * Samples every idle session's browser and recycles those above a limit.
+     */
+    void checkAll() {
+        for (BrowserSession session : SessionRegistry.all()) {
+            if (session.activeCalls() > 0) {
+                continue;
+            }
+            String sessionId = session.sessionId();
+            try {
+                sessionExecutors.call(sessionId, () -> SessionContext.callWithin(sessionId, () -> {
+                    check(session);
+                    return null;
+                }));
+            } catch (Exception e) {
+                logger.warn("Failed to check the memory of session {}", sessionId, e);
+            }
+            if (SessionRegistry.get(sessionId).isEmpty()) {
+                // the session quit while it was being checked, so drop the executor the check created for it
+                sessionExecutors.close(sessionId);
+            }
+        }
+    }
+
+    private void check(BrowserSession session) {
+        if (SessionRegistry.get(session.sessionId()).orElse(null) != session) {
+            return;
+        }
+        Tags tags = Tags.of("browser", session.browserType().name(), "launchProfile", session.launchProfile().name());
+        Long jsHeapBytes = sampleJsHeap(session);
+        if (jsHeapBytes != null) {
+            DistributionSummary.builder("shaft.mcp.browser.js.heap.used")
+                    .description("JavaScript heap used by the current page of a session's browser")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(jsHeapBytes);
+        }
+        Long rssBytes = BrowserMemory.measure(session.driver().getDriver()).map(BrowserMemory.Usage::rssBytes).orElse(null);
+        if (rssBytes != null) {
+            DistributionSummary.builder("shaft.mcp.browser.rss")
+                    .description("Resident memory of a session's browser processes")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(rssBytes);
+        }
+        logger.debug("Session {} browser memory: JS heap {} bytes, RSS {} bytes", session.sessionId(), jsHeapBytes, rssBytes);
+
+        String reason = null;
+        if (maxJsHeapBytes > 0 && jsHeapBytes != null && jsHeapBytes > maxJsHeapBytes) {
+            reason = "js-heap";
+        } else if (maxRssBytes > 0 && rssBytes != null && rssBytes > maxRssBytes) {
+            reason = "rss";
+        }
+        if (reason == null) {
+            return;
+        }
+        if (session.browserStartedAt().plus(minBrowserAge).isAfter(Instant.now())) {
+            logger.warn("Session {} browser is above its {} limit, but was launched less than {} ago", session.sessionId(), reason, minBrowserAge);
+            return;
+        }
+        logger.info("Recycling the browser of session {}: JS heap {} bytes, RSS {} bytes", session.sessionId(), jsHeapBytes, rssBytes);
+        recycle(session);
+        Counter.builder("shaft.mcp.browser.recycles")
+                .description("Browsers replaced because of their memory use")
+                .tags(tags)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        watchdogExecutor.shutdownNow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long sampleJsHeap(BrowserSession session) {
+        try {
+            Object heap = ((JavascriptExecutor) session.driver().getDriver()).executeScript(JS_HEAP_SCRIPT);
+            return heap instanceof Map<?, ?> memory && ((Map<String, Object>) memory).get("used") instanceof Number used
+                    ? used.longValue() : null;
+        } catch (RuntimeException e) {
+            // the page may be unresponsive or showing an alert; the process memory is still sampled
+            logger.debug("Failed to sample the JavaScript heap of session {}", session.sessionId(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the session's browser and carries over its page and cookies: pages served over HTTP(S) are restored
+     * with their cookies and storage, other pages are only reopened.
+     */
+    private void recycle(BrowserSession session) {
+        String url = browserService.getCurrentUrl();
+        boolean web = url != null && (url.startsWith("http://") || url.startsWith("https://"));
+        StorageState state = web ? storageStateService.captureCurrent() : null;
+        engineService.recycleDriver(session);
+        if (state != null) {
+            int skippedCookies = storageStateService.restoreCurrent(state);
+            if (skippedCookies > 0) {
+                logger.warn("{} cookies of session {} could not be carried over to its new browser", skippedCookies, session.sessionId());
+            }
+        } else if (url != null && !url.equals("about:blank")) {
+            browserService.navigate(url);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.shafthq.SHAFT_MCP;
+
+/**
+ * A subtree that changed between two page source snapshots.
+ *
+ * @param selector A CSS selector of the changed element, valid in both the previous and the current snapshot.
+ * @param html     The current outer HTML of the element, which replaces the previous one.
+ */
+public record DomChange(String selector, String html) {
+}
@@ -0,0 +1,92 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the changed subtrees between two HTML documents.
+ * Elements whose tag, attributes and child structure are unchanged are descended into, so only the
+ * smallest changed subtrees are reported; any other difference replaces the whole element.
+ * Every subtree is hashed once, bottom-up, so that unchanged subtrees are recognized without serializing them at each
+ * level; a subtree is only serialized to confirm a matching hash, and is then not descended into.
+ */
+final class DomDiff {
+
+    private DomDiff() {
+    }
+
+    /**
+     * Compares two HTML documents.
+     *
+     * @param previousHtml The previous page source.
+     * @param currentHtml  The current page source.
+     * @return The changed subtrees, empty if the documents are equivalent.
+     */
+    static List<DomChange> diff(String previousHtml, String currentHtml) {
+        Document previous = Jsoup.parse(previousHtml);
+        Document current = Jsoup.parse(currentHtml);
+        Map<Node, Long> previousHashes = new IdentityHashMap<>();
+        Map<Node, Long> currentHashes = new IdentityHashMap<>();
+        hash(previous.child(0), previousHashes);
+        hash(current.child(0), currentHashes);
+        List<DomChange> changes = new ArrayList<>();
+        diff(previous.child(0), current.child(0), previousHashes, currentHashes, changes);
+        return changes;
+    }
+
+    /**
+     * Hashes an element from its tag, attributes and the hashes of its children, and records the hash of every
+     * element below it.
+     */
+    private static long hash(Element element, Map<Node, Long> hashes) {
+        long hash = element.tagName().hashCode() * 31L + element.attributes().hashCode();
+        for (Node child : element.childNodes()) {
+            long childHash = child instanceof Element childElement ? hash(childElement, hashes)
+                    : child instanceof TextNode text ? text.getWholeText().hashCode()
+                    : child.outerHtml().hashCode();
+            hash = hash * 1_000_003L + childHash;
+        }
+        hashes.put(element, hash);
+        return hash;
+    }
+
+    private static void diff(Element previous, Element current, Map<Node, Long> previousHashes,
+                             Map<Node, Long> currentHashes, List<DomChange> changes) {
+        if (previousHashes.get(previous).equals(currentHashes.get(current)) && previous.hasSameValue(current)) {
+            return;
+        }
+        if (!previous.tagName().equals(current.tagName())
+                || !previous.attributes().equals(current.attributes())
+                || previous.childNodeSize() != current.childNodeSize()) {
+            changes.add(replace(current));
+            return;
+        }
+        // text, comments and other non-element children cannot be addressed by a selector, so their parent is replaced
+        for (int i = 0; i < current.childNodeSize(); i++) {
+            Node previousChild = previous.childNode(i);
+            Node currentChild = current.childNode(i);
+            boolean bothElements = previousChild instanceof Element && currentChild instanceof Element;
+            if (!bothElements && !currentChild.hasSameValue(previousChild)) {
+                changes.add(replace(current));
+                return;
+            }
+        }
+        for (int i = 0; i < current.childNodeSize(); i++) {
+            if (previous.childNode(i) instanceof Element previousChild && current.childNode(i) instanceof Element currentChild) {
+                diff(previousChild, currentChild, previousHashes, currentHashes, changes);
+            }
+        }
+    }
+
+    private static DomChange replace(Element element) {
+        return new DomChange(element.cssSelector(), element.outerHtml());
+    }
+}
@@ -2,17 +2,30 @@ package io.github.shafthq.SHAFT_MCP;
 
 import com.shaft.driver.SHAFT;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.shafthq.SHAFT_MCP.EngineService.getActions;
 import static io.github.shafthq.SHAFT_MCP.EngineService.getDriver;
 import static io.github.shafthq.SHAFT_MCP.EngineService.getLocator;
 
 @Service
 public class ElementService {
     private static final Logger logger = LoggerFactory.getLogger(ElementService.class);
+    private static final long DEFAULT_WAIT_TIMEOUT_MILLIS = 10_000;
+    private final PayloadPager payloadPager;
+
+    public ElementService(PayloadPager payloadPager) {
+        this.payloadPager = payloadPager;
+    }
 
     /**
      * Hovers over an element identified by the specified locator strategy and value.
@@ -23,9 +36,9 @@ public class ElementService {
     @Tool(name = "element_hover", description = "hovers over an element")
     public void hover(locatorStrategy locatorStrategy, String locatorValue) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            driver.element().hover(locator);
+            actions.hover(locator);
             logger.info("Hovered over element with locator: {} - {}", locatorStrategy, locatorValue);
         } catch (Exception e) {
             logger.error("Failed to hover over element with locator: {} - {}", locatorStrategy, locatorValue, e);
@@ -42,9 +55,9 @@ public class ElementService {
     @Tool(name = "element_click", description = "clicks an element")
     public void click(locatorStrategy locatorStrategy, String locatorValue) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            driver.element().click(locator);
+            actions.click(locator);
             logger.info("Clicked element with locator: {} - {}", locatorStrategy, locatorValue);
         } catch (Exception e) {
             logger.error("Failed to click element with locator: {} - {}", locatorStrategy, locatorValue, e);
@@ -79,9 +92,9 @@ public class ElementService {
     @Tool(name = "element_click_js", description = "clicks an element using JavaScript")
     public void clickUsingJavaScript(locatorStrategy locatorStrategy, String locatorValue) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            driver.element().clickUsingJavascript(locator);
+            actions.clickUsingJavascript(locator);
             logger.info("Clicked element using JavaScript with locator: {} - {}", locatorStrategy, locatorValue);
         } catch (Exception e) {
             logger.error("Failed to click element using JavaScript with locator: {} - {}", locatorStrategy, locatorValue, e);
@@ -98,9 +111,9 @@ public class ElementService {
     @Tool(name = "element_double_click", description = "double clicks an element")
     public void doubleClick(locatorStrategy locatorStrategy, String locatorValue) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            driver.element().doubleClick(locator);
+            actions.doubleClick(locator);
             logger.info("Double-clicked element with locator: {} - {}", locatorStrategy, locatorValue);
         } catch (Exception e) {
             logger.error("Failed to double-click element with locator: {} - {}", locatorStrategy, locatorValue, e);
@@ -117,9 +130,9 @@ public class ElementService {
     @Tool(name = "element_click_and_hold", description = "clicks and holds an element")
     public void clickAndHold(locatorStrategy locatorStrategy, String locatorValue) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            driver.element().clickAndHold(locator);
+            actions.clickAndHold(locator);
             logger.info("Clicked and held element with locator: {} - {}", locatorStrategy, locatorValue);
         } catch (Exception e) {
             logger.error("Failed to click and hold element with locator: {} - {}", locatorStrategy, locatorValue, e);
@@ -137,12 +150,12 @@ public class ElementService {
     @Tool(name = "element_type", description = "types value to an element")
     public void type(locatorStrategy locatorStrategy, String locatorValue, CharSequence... textValue) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            driver.element().type(locator, textValue);
-            logger.info("Typed text '{}' into element with locator: {} - {}", String.join(", ", textValue), locatorStrategy, locatorValue);
+            actions.type(locator, textValue);
+            logger.info("Typed text '{}' into element with locator: {} - {}", LogValues.truncate(textValue), locatorStrategy, locatorValue);
         } catch (Exception e) {
-            logger.error("Failed to type text '{}' into element with locator: {} - {}", String.join(", ", textValue), locatorStrategy, locatorValue, e);
+            logger.error("Failed to type text '{}' into element with locator: {} - {}", LogValues.truncate(textValue), locatorStrategy, locatorValue, e);
             throw e;
         }
     }
@@ -157,12 +170,12 @@ public class ElementService {
     @Tool(name = "element_append_text", description = "appends text to an element")
     public void appendText(locatorStrategy locatorStrategy, String locatorValue, CharSequence... textValue) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            driver.element().typeAppend(locator, textValue);
-            logger.info("Appended text '{}' to element with locator: {} - {}", String.join(", ", textValue), locatorStrategy, locatorValue);
+            actions.typeAppend(locator, textValue);
+            logger.info("Appended text '{}' to element with locator: {} - {}", LogValues.truncate(textValue), locatorStrategy, locatorValue);
         } catch (Exception e) {
-            logger.error("Failed to append text '{}' to element with locator: {} - {}", String.join(", ", textValue), locatorStrategy, locatorValue, e);
+            logger.error("Failed to append text '{}' to element with locator: {} - {}", LogValues.truncate(textValue), locatorStrategy, locatorValue, e);
             throw e;
         }
     }
@@ -179,9 +192,9 @@ public class ElementService {
         try {
             SHAFT.GUI.WebDriver driver = getDriver();
             driver.element().type(elementName, textValue);
-            logger.info("Typed text '{}' into element using AI with name: {}", String.join(", ", textValue), elementName);
+            logger.info("Typed text '{}' into element using AI with name: {}", LogValues.truncate(textValue), elementName);
         } catch (Exception e) {
-            logger.error("Failed to type text '{}' into element using AI with name: {}", String.join(", ", textValue), elementName, e);
+            logger.error("Failed to type text '{}' into element using AI with name: {}", LogValues.truncate(textValue), elementName, e);
             throw e;
         }
     }
@@ -196,12 +209,12 @@ public class ElementService {
     @Tool(name = "element_set_value_js", description = "sets value to an element using JavaScript")
     public void setValueUsingJavaScript(locatorStrategy locatorStrategy, String locatorValue, String textValue) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            driver.element().setValueUsingJavaScript(locator, textValue);
-            logger.info("Set value '{}' to element using JavaScript with locator: {} - {}", textValue, locatorStrategy, locatorValue);
+            actions.setValueUsingJavaScript(locator, textValue);
+            logger.info("Set value '{}' to element using JavaScript with locator: {} - {}", LogValues.truncate(textValue), locatorStrategy, locatorValue);
         } catch (Exception e) {
-            logger.error("Failed to set value '{}' to element using JavaScript with locator: {} - {}", textValue, locatorStrategy, locatorValue, e);
+            logger.error("Failed to set value '{}' to element using JavaScript with locator: {} - {}", LogValues.truncate(textValue), locatorStrategy, locatorValue, e);
             throw e;
         }
     }
@@ -215,9 +228,9 @@ public class ElementService {
     @Tool(name = "element_clear", description = "clears text from an element")
     public void clear(locatorStrategy locatorStrategy, String locatorValue) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            driver.element().clear(locator);
+            actions.clear(locator);
             logger.info("Cleared text from element with locator: {} - {}", locatorStrategy, locatorValue);
         } catch (Exception e) {
             logger.error("Failed to clear text from element with locator: {} - {}", locatorStrategy, locatorValue, e);
@@ -235,9 +248,9 @@ public class ElementService {
     @Tool(name = "element_drop_file_to_upload", description = "drops file to an element to upload")
     public void dropFileToUpload(locatorStrategy locatorStrategy, String locatorValue, String filePath) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            driver.element().dropFileToUpload(locator, filePath);
+            actions.dropFileToUpload(locator, filePath);
             logger.info("Dropped file '{}' to element with locator: {} - {}", filePath, locatorStrategy, locatorValue);
         } catch (Exception e) {
             logger.error("Failed to drop file '{}' to element with locator: {} - {}", filePath, locatorStrategy, locatorValue, e);
@@ -257,10 +270,10 @@ public class ElementService {
     public void dragAndDrop(locatorStrategy sourceLocatorStrategy, String sourceLocatorValue, locatorStrategy
             targetLocatorStrategy, String targetLocatorValue) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By sourceLocator = getLocator(sourceLocatorStrategy, sourceLocatorValue);
             By targetLocator = getLocator(targetLocatorStrategy, targetLocatorValue);
-            driver.element().dragAndDrop(sourceLocator, targetLocator);
+            actions.dragAndDrop(sourceLocator, targetLocator);
             logger.info("Dragged and dropped element from locator: {} - {} to locator: {} - {}",
                     sourceLocatorStrategy, sourceLocatorValue, targetLocatorStrategy, targetLocatorValue);
         } catch (Exception e) {
@@ -281,9 +294,9 @@ public class ElementService {
     @Tool(name = "element_drag_and_drop_by_offset", description = "drags and drops an element by offset")
     public void dragAndDropByOffset(locatorStrategy locatorStrategy, String locatorValue, int xOffset, int yOffset) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            driver.element().dragAndDropByOffset(locator, xOffset, yOffset);
+            actions.dragAndDropByOffset(locator, xOffset, yOffset);
             logger.info("Dragged and dropped element with locator: {} - {} by offset: ({}, {})",
                     locatorStrategy, locatorValue, xOffset, yOffset);
         } catch (Exception e) {
@@ -300,13 +313,12 @@ public class ElementService {
      * @param locatorValue    The value used with the locator strategy to find the element.
      * @return The text content of the element.
      */
-    @Tool(name = "element_get_text", description = "gets text of an element")
     public String getText(locatorStrategy locatorStrategy, String locatorValue) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            String text = driver.element().get().text(locator);
-            logger.info("Retrieved text '{}' from element with locator: {} - {}", text, locatorStrategy, locatorValue);
+            String text = actions.getText(locator);
+            logger.info("Retrieved text '{}' from element with locator: {} - {}", LogValues.truncate(text), locatorStrategy, locatorValue);
             return text;
         } catch (Exception e) {
             logger.error("Failed to retrieve text from element with locator: {} - {}", locatorStrategy, locatorValue, e);
@@ -314,6 +326,29 @@ public class ElementService {
         }
     }
 
+    /**
+     * Retrieves the text content of an element, one page at a time when it exceeds the payload budget.
+     *
+     * @param locatorStrategy The strategy to locate the element (e.g., ID, XPATH).
+     * @param locatorValue    The value used with the locator strategy to find the element.
+     * @param cursor          The cursor returned with the previous page, or null for the first page.
+     * @param maxBytes        The maximum page size in bytes, capped by the server's payload budget.
+     * @return A page of the text content, with its total size and the cursor of the next page.
+     */
+    @Tool(name = "element_get_text", description = "gets text of an element; long texts are returned in pages, pass the returned nextCursor to get the next page")
+    public TextPage getText(locatorStrategy locatorStrategy, String locatorValue,
+                            @ToolParam(required = false, description = "nextCursor returned with the previous page; the locator is not looked up again") String cursor,
+                            @ToolParam(required = false, description = "maximum page size in bytes, capped by the server's payload budget") Integer maxBytes) {
+        try {
+            TextPage page = payloadPager.page(() -> getText(locatorStrategy, locatorValue), cursor, maxBytes);
+            logger.info("Returned text bytes {} of {} from element with locator: {} - {}", page.offset(), page.totalBytes(), locatorStrategy, locatorValue);
+            return page;
+        } catch (Exception e) {
+            logger.error("Failed to retrieve text page from element with locator: {} - {}", locatorStrategy, locatorValue, e);
+            throw e;
+        }
+    }
+
     /**
      * Retrieves the value of a specified DOM attribute from an element identified by the given locator strategy and value.
      *
@@ -325,11 +360,11 @@ public class ElementService {
     @Tool(name = "element_get_dom_attribute", description = "gets a DOM attribute value of an element")
     public String getDomAttribute(locatorStrategy locatorStrategy, String locatorValue, String domAttributeName) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            String attributeValue = driver.element().get().domAttribute(locator, domAttributeName);
+            String attributeValue = actions.getDomAttribute(locator, domAttributeName);
             logger.info("Retrieved DOM attribute '{}' with value '{}' from element with locator: {} - {}",
-                    domAttributeName, attributeValue, locatorStrategy, locatorValue);
+                    domAttributeName, LogValues.truncate(attributeValue), locatorStrategy, locatorValue);
             return attributeValue;
         } catch (Exception e) {
             logger.error("Failed to retrieve DOM attribute '{}' from element with locator: {} - {}",
@@ -349,11 +384,11 @@ public class ElementService {
     @Tool(name = "element_get_dom_property", description = "gets a DOM property value of an element")
     public String getDomProperty(locatorStrategy locatorStrategy, String locatorValue, String domPropertyName) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            String propertyValue = driver.element().get().domProperty(locator, domPropertyName);
+            String propertyValue = actions.getDomProperty(locator, domPropertyName);
             logger.info("Retrieved DOM property '{}' with value '{}' from element with locator: {} - {}",
-                    domPropertyName, propertyValue, locatorStrategy, locatorValue);
+                    domPropertyName, LogValues.truncate(propertyValue), locatorStrategy, locatorValue);
             return propertyValue;
         } catch (Exception e) {
             logger.error("Failed to retrieve DOM property '{}' from element with locator: {} - {}",
@@ -373,11 +408,11 @@ public class ElementService {
     @Tool(name = "element_get_css_value", description = "gets a CSS property value of an element")
     public String getCssValue(locatorStrategy locatorStrategy, String locatorValue, String cssPropertyName) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            String cssValue = driver.element().get().cssValue(locator, cssPropertyName);
+            String cssValue = actions.getCssValue(locator, cssPropertyName);
             logger.info("Retrieved CSS property '{}' with value '{}' from element with locator: {} - {}",
-                    cssPropertyName, cssValue, locatorStrategy, locatorValue);
+                    cssPropertyName, LogValues.truncate(cssValue), locatorStrategy, locatorValue);
             return cssValue;
         } catch (Exception e) {
             logger.error("Failed to retrieve CSS property '{}' from element with locator: {} - {}",
@@ -396,9 +431,9 @@ public class ElementService {
     @Tool(name = "element_is_displayed", description = "checks if an element is displayed")
     public boolean isDisplayed(locatorStrategy locatorStrategy, String locatorValue) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            boolean isDisplayed = driver.element().get().isDisplayed(locator);
+            boolean isDisplayed = actions.isDisplayed(locator);
             logger.info("Element with locator: {} - {} is displayed: {}", locatorStrategy, locatorValue, isDisplayed);
             return isDisplayed;
         } catch (Exception e) {
@@ -417,9 +452,9 @@ public class ElementService {
     @Tool(name = "element_is_enabled", description = "checks if an element is enabled")
     public boolean isEnabled(locatorStrategy locatorStrategy, String locatorValue) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            boolean isEnabled = driver.element().get().isEnabled(locator);
+            boolean isEnabled = actions.isEnabled(locator);
             logger.info("Element with locator: {} - {} is enabled: {}", locatorStrategy, locatorValue, isEnabled);
             return isEnabled;
         } catch (Exception e) {
@@ -438,9 +473,9 @@ public class ElementService {
     @Tool(name = "element_is_selected", description = "checks if an element is selected")
     public boolean isSelected(locatorStrategy locatorStrategy, String locatorValue) {
         try {
-            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserActions actions = getActions();
             By locator = getLocator(locatorStrategy, locatorValue);
-            boolean isSelected = driver.element().get().isSelected(locator);
+            boolean isSelected = actions.isSelected(locator);
             logger.info("Element with locator: {} - {} is selected: {}", locatorStrategy, locatorValue, isSelected);
             return isSelected;
         } catch (Exception e) {
@@ -448,4 +483,80 @@ public class ElementService {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads the state of an element, or of all elements matching a locator, in a single browser round trip:
+     * text, visibility, enabled and selected state, plus the requested DOM attributes, DOM properties and CSS values.
+     * Visibility is computed in the page from the element's style and size, which is close to but not identical
+     * to the WebDriver displayedness algorithm used by {@code element_is_displayed}.
+     *
+     * @param locatorStrategy The strategy to locate the element (e.g., ID, XPATH).
+     * @param locatorValue    The value used with the locator strategy to find the element.
+     * @param attributes      The names of the DOM attributes to read.
+     * @param properties      The names of the DOM properties to read.
+     * @param cssProperties   The names of the CSS properties to read.
+     * @param allMatches      Whether to inspect every matching element instead of only the first one.
+     * @return The number of matching elements and the state of the inspected ones.
+     */
+    @Tool(name = "element_inspect", description = "reads text, displayed/enabled/selected state, DOM attributes, DOM properties and CSS values of an element in one call")
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> inspect(locatorStrategy locatorStrategy, String locatorValue,
+                                       @ToolParam(required = false, description = "DOM attribute names to read") List<String> attributes,
+                                       @ToolParam(required = false, description = "DOM property names to read") List<String> properties,
+                                       @ToolParam(required = false, description = "CSS property names to read") List<String> cssProperties,
+                                       @ToolParam(required = false, description = "inspect all matching elements instead of only the first one") Boolean allMatches) {
+        try {
+            SHAFT.GUI.WebDriver driver = getDriver();
+            Map<String, Object> state = (Map<String, Object>) ((JavascriptExecutor) driver.getDriver()).executeScript(
+                    PageScripts.get("resolve-locator.js") + PageScripts.get("element-inspect.js"),
+                    locatorStrategy.name(), locatorValue,
+                    attributes == null ? List.of() : attributes,
+                    properties == null ? List.of() : properties,
+                    cssProperties == null ? List.of() : cssProperties,
+                    allMatches != null && allMatches);
+            logger.info("Inspected {} element(s) with locator: {} - {}", state.get("count"), locatorStrategy, locatorValue);
+            return state;
+        } catch (Exception e) {
+            logger.error("Failed to inspect element with locator: {} - {}", locatorStrategy, locatorValue, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits inside the browser until the elements matching a locator meet a condition, re-checking on every DOM
+     * mutation, so that a single call replaces polling with {@code element_is_displayed} or the page source.
+     *
+     * @param locatorStrategy The strategy to locate the element (e.g., ID, XPATH).
+     * @param locatorValue    The value used with the locator strategy to find the element.
+     * @param condition       The condition to wait for, defaults to VISIBLE.
+     * @param text            The expected text, for TEXT_CONTAINS.
+     * @param timeoutMillis   How long to wait, defaults to 10 seconds.
+     * @return Whether the condition was met, how long it took and how many elements matched.
+     */
+    @Tool(name = "element_wait_for", description = "waits until an element is present, absent, visible, hidden, enabled or contains a text, reacting to DOM changes instead of polling")
+    @SuppressWarnings("unchecked")
+    public WaitResult waitFor(locatorStrategy locatorStrategy, String locatorValue,
+                              @ToolParam(required = false, description = "PRESENT, ABSENT, VISIBLE, HIDDEN, ENABLED or TEXT_CONTAINS, defaults to VISIBLE") WaitCondition condition,
+                              @ToolParam(required = false, description = "expected text, for TEXT_CONTAINS") String text,
+                              @ToolParam(required = false, description = "maximum time to wait in milliseconds, defaults to 10000") Integer timeoutMillis) {
+        WaitCondition waitCondition = condition == null ? WaitCondition.VISIBLE : condition;
+        try {
+            if (waitCondition == WaitCondition.TEXT_CONTAINS && text == null) {
+                throw new IllegalArgumentException("TEXT_CONTAINS requires a text");
+            }
+            Duration timeout = Duration.ofMillis(timeoutMillis == null ? DEFAULT_WAIT_TIMEOUT_MILLIS : Math.max(0, timeoutMillis));
+            WaitResult result = WaitResult.from((Map<String, Object>) PageScripts.executeAsync(getDriver().getDriver(), timeout,
+                    PageScripts.get("resolve-locator.js") + PageScripts.get("wait-for-element.js"),
+                    locatorStrategy.name(), locatorValue, waitCondition.name(), text == null ? "" : text, timeout.toMillis()));
+            if (result.satisfied()) {
+                logger.info("Element with locator: {} - {} became {} after {} ms", locatorStrategy, locatorValue, waitCondition, result.elapsedMillis());
+            } else {
+                logger.warn("Element with locator: {} - {} did not become {} within {} ms", locatorStrategy, locatorValue, waitCondition, timeout.toMillis());
+            }
+            return result;
+        } catch (Exception e) {
+            logger.error("Failed to wait for element with locator: {} - {} to become {}", locatorStrategy, locatorValue, waitCondition, e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.shaft.listeners.TestNGListener;
+import com.shaft.tools.io.internal.ProjectStructureManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Performs the one-time SHAFT Engine setup for AI Agent mode.
+ * The setup runs asynchronously as soon as the application is ready, so that the first tool call
+ * only has to wait for it if it has not finished yet. Concurrent callers share the same setup run.
+ */
+@Component
+public class EngineBootstrap {
+    private static final Logger logger = LoggerFactory.getLogger(EngineBootstrap.class);
+    private final AtomicReference<CompletableFuture<Void>> bootstrap = new AtomicReference<>();
+    private final BrowserPool browserPool;
+    private final boolean eager;
+    private volatile long durationMillis = -1;
+
+    public EngineBootstrap(BrowserPool browserPool, @Value("${shaft.mcp.bootstrap.eager:true}") boolean eager) {
+        this.browserPool = browserPool;
+        this.eager = eager;
+    }
+
+    /**
+     * Starts the engine setup in the background once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void onApplicationReady() {
+        if (eager) {
+            start();
+        }
+    }
+
+    /**
+     * Waits for the engine setup to finish, starting it if it has not been started yet.
+     * A failed setup is retried by the next caller.
+     *
+     * @throws IllegalStateException if the engine setup failed.
+     */
+    void awaitReady() {
+        CompletableFuture<Void> future = start();
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            bootstrap.compareAndSet(future, null);
+            throw new IllegalStateException("SHAFT Engine setup failed", e.getCause());
+        }
+    }
+
+    /**
+     * Retrieves how long the engine setup took.
+     *
+     * @return The setup duration in milliseconds, or -1 if it has not finished yet.
+     */
+    long durationMillis() {
+        return durationMillis;
+    }
+
+    private CompletableFuture<Void> start() {
+        CompletableFuture<Void> future = bootstrap.get();
+        if (future != null) {
+            return future;
+        }
+        CompletableFuture<Void> newFuture = new CompletableFuture<>();
+        if (!bootstrap.compareAndSet(null, newFuture)) {
+            return bootstrap.get();
+        }
+        Thread.ofPlatform().name("shaft-engine-bootstrap").daemon(true).start(() -> {
+            try {
+                setUpEngine();
+                newFuture.complete(null);
+                browserPool.startWarming();
+            } catch (Throwable t) {
+                logger.error("Failed to set up SHAFT Engine", t);
+                newFuture.completeExceptionally(t);
+            }
+        });
+        return newFuture;
+    }
+
+    private void setUpEngine() {
+        long start = System.nanoTime();
+        logger.info("Initializing SHAFT Engine for AI Agent mode...");
+
+        // Pre-create directories to prevent issues during SHAFT Engine initialization.
+        // The allure-results directory must exist before Allure lifecycle is initialized.
+        // The properties directory must exist (empty) before engineSetup() to prevent
+        // SHAFT Engine from extracting default property files with subdirectories that
+        // cause "Is a directory" IOException during ReportHelper.attachPropertyFiles().
+        for (String dirPath : new String[]{
+                System.getProperty("user.dir") + File.separator + "allure-results",
+                "src" + File.separator + "main" + File.separator + "resources" + File.separator + "properties"
+        }) {
+            File dir = new File(dirPath);
+            if (!dir.exists()) {
+                if (dir.mkdirs()) {
+                    logger.debug("Created directory: {}", dirPath);
+                } else {
+                    logger.warn("Failed to create directory: {}", dirPath);
+                }
+            }
+        }
+
+        TestNGListener.engineSetup(ProjectStructureManager.RunType.AI_AGENT);
+        durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("SHAFT Engine initialized in {} ms", durationMillis);
+    }
+}
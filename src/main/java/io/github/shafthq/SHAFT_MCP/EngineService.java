@@ -1,23 +1,45 @@
 package io.github.shafthq.SHAFT_MCP;
 
 import com.shaft.driver.SHAFT;
-import com.shaft.listeners.TestNGListener;
-import com.shaft.tools.io.internal.AllureManager;
-import com.shaft.tools.io.internal.ProjectStructureManager;
 import jakarta.annotation.PostConstruct;
 import org.openqa.selenium.By;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.ai.util.json.JsonParser;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class EngineService {
     private static final Logger logger = LoggerFactory.getLogger(EngineService.class);
-    private static SHAFT.GUI.WebDriver driver;
-    private static boolean engineInitialized = false;
+    private static final LocatorCache locatorCache = new LocatorCache(1024);
+    private final BrowserPool browserPool;
+    private final EngineBootstrap engineBootstrap;
+    private final SessionExecutors sessionExecutors;
+    private final ReportJobs reportJobs;
+    private final AllureResultsRetention allureResultsRetention;
+    private final PayloadPager payloadPager;
+    private final ToolMetricsSummary toolMetricsSummary;
+
+    public EngineService(BrowserPool browserPool, EngineBootstrap engineBootstrap, SessionExecutors sessionExecutors,
+                         ReportJobs reportJobs, AllureResultsRetention allureResultsRetention, PayloadPager payloadPager,
+                         ToolMetricsSummary toolMetricsSummary) {
+        this.browserPool = browserPool;
+        this.engineBootstrap = engineBootstrap;
+        this.sessionExecutors = sessionExecutors;
+        this.reportJobs = reportJobs;
+        this.allureResultsRetention = allureResultsRetention;
+        this.payloadPager = payloadPager;
+        this.toolMetricsSummary = toolMetricsSummary;
+    }
 
     /**
      * Called by Spring after this bean is constructed.
@@ -50,74 +72,160 @@ public class EngineService {
     }
 
     /**
-     * Retrieves the current WebDriver instance.
+     * Retrieves the WebDriver instance of the MCP session bound to the current thread.
      *
-     * @return The current WebDriver instance.
+     * @return The current session's WebDriver instance.
      * @throws IllegalStateException if no active browser session is found.
      */
     static SHAFT.GUI.WebDriver getDriver() {
-        if (driver == null) {
-            logger.error("No active browser session found. Please initialize a browser session first.");
-            throw new IllegalStateException("No active browser session");
-        }
-        return driver;
+        return getSession().driver();
+    }
+
+    /**
+     * Retrieves the actions of the MCP session bound to the current thread, which report each action unless the
+     * session was initialized in lean mode.
+     *
+     * @return The current session's browser and element actions.
+     * @throws IllegalStateException if no active browser session is found.
+     */
+    static BrowserActions getActions() {
+        return getSession().actions();
+    }
+
+    /**
+     * Retrieves the browser session of the MCP session bound to the current thread.
+     *
+     * @return The current browser session.
+     * @throws IllegalStateException if no active browser session is found.
+     */
+    static BrowserSession getSession() {
+        return SessionRegistry.get(SessionContext.currentSessionId())
+                .orElseThrow(() -> {
+                    logger.error("No active browser session found. Please initialize a browser session first.");
+                    return new IllegalStateException("No active browser session");
+                });
     }
 
     /**
      * Finds a web element using the specified locator strategy and value.
+     * Compiled locators are cached, so repeated lookups of the same locator are free.
      *
      * @param locatorStrategy The strategy to locate the element (e.g., ID, XPATH, CSSSELECTOR).
      * @param locatorValue    The value used with the locator strategy to find the element.
      * @return The located web element.
      */
     static By getLocator(locatorStrategy locatorStrategy, String locatorValue) {
+        try (Tracing.Span span = Tracing.start("locator.resolve")) {
+            if (span.traceId() == null) {
+                return locatorCache.get(locatorStrategy, locatorValue, EngineService::compileLocator);
+            }
+            span.attribute("shaft.mcp.locator.strategy", locatorStrategy.name());
+            return locatorCache.get(locatorStrategy, locatorValue, (strategy, value) -> {
+                span.attribute("shaft.mcp.locator.compiled", true);
+                return compileLocator(strategy, value);
+            });
+        }
+    }
+
+    /**
+     * @return The ratio of locator lookups served from the compiled locator cache.
+     */
+    static double locatorCacheHitRate() {
+        return locatorCache.hitRate();
+    }
+
+    /**
+     * Compiles a locator for the specified locator strategy and value.
+     * ID, NAME and CLASSNAME use native locators that match exactly the same elements as the equivalent
+     * SHAFT XPath, so the browser does not have to evaluate an XPath for them.
+     *
+     * @param locatorStrategy The strategy to locate the element (e.g., ID, XPATH, CSSSELECTOR).
+     * @param locatorValue    The value used with the locator strategy to find the element.
+     * @return The compiled locator.
+     */
+    private static By compileLocator(locatorStrategy locatorStrategy, String locatorValue) {
         return switch (locatorStrategy) {
-            case ID -> SHAFT.GUI.Locator.hasAnyTagName().hasId(locatorValue).build();
+            case ID -> By.id(locatorValue);
             case CSSSELECTOR, CSS, SELECTOR -> By.cssSelector(locatorValue);
             case XPATH -> By.xpath(locatorValue);
-            case NAME -> SHAFT.GUI.Locator.hasAnyTagName().hasAttribute("name", locatorValue).build();
+            case NAME -> By.name(locatorValue);
             case TAGNAME -> SHAFT.GUI.Locator.hasTagName(locatorValue).build();
-            case CLASSNAME -> SHAFT.GUI.Locator.hasAnyTagName().hasAttribute("class", locatorValue).build();
+            // the whole class attribute must match, like @class='...', so By.className (a single class token) does not fit
+            case CLASSNAME -> By.cssSelector("[class=\"" + escapeCssString(locatorValue) + "\"]");
         };
     }
 
     /**
-     * Initializes the WebDriver for the specified browser type.
+     * Escapes a value for a double-quoted CSS string. Quotes and backslashes are escaped with a backslash, and control
+     * characters as hexadecimal escapes followed by a space, so the selector never holds a raw control character;
+     * a raw newline would end the string.
+     */
+    private static String escapeCssString(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20 || c == 0x7f) {
+                escaped.append('\\').append(Integer.toHexString(c)).append(' ');
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Initializes the WebDriver for the specified browser type and assigns it to the calling MCP session.
+     * If the session already owns a browser, that browser is released first.
      *
      * @param targetBrowser The type of browser to initialize (e.g., CHROME, FIREFOX).
      */
-    @Tool(name = "driver_initialize", description = "launches browser")
     public void initializeDriver(BrowserType targetBrowser) {
+        initializeDriver(targetBrowser, null, false, null);
+    }
+
+    /**
+     * Initializes the WebDriver for the specified browser type and assigns it to the calling MCP session.
+     * If the session already owns a browser, that browser is released first.
+     *
+     * @param targetBrowser  The type of browser to initialize (e.g., CHROME, FIREFOX).
+     * @param launchProfile  The launch options of the browser, defaults to the {@code shaft.mcp.launch-profile} property.
+     * @param leanMode       Whether to skip per-action steps, attachments, highlighting and screenshots; failures are not
+     *                       added to the Allure report, their screenshot is saved to a file named in the error.
+     * @param networkProfile The resource types and URL patterns the browser should not load.
+     */
+    @Tool(name = "driver_initialize", description = "launches browser")
+    public void initializeDriver(BrowserType targetBrowser,
+                                 @ToolParam(required = false, description = "FULL for a regular browser, LEAN_HEADLESS for a headless low-memory browser; defaults to the server's launch profile") LaunchProfile launchProfile,
+                                 @ToolParam(required = false, description = "skip per-action reporting and screenshots for faster actions; defaults to false. In lean mode failures are not added to the test report, a screenshot is saved to a file named in the error instead, and element_drop_file_to_upload sends the file to a file input or simulates dropping it on other elements") Boolean leanMode,
+                                 @ToolParam(required = false, description = "resource types and URL patterns to block for faster page loads") NetworkProfile networkProfile) {
         try {
-            // Initialize engine setup only once to avoid repeated initialization warnings
-            if (!engineInitialized) {
-                logger.info("Initializing SHAFT Engine for AI Agent mode...");
-
-                // Pre-create directories to prevent issues during SHAFT Engine initialization.
-                // The allure-results directory must exist before Allure lifecycle is initialized.
-                // The properties directory must exist (empty) before engineSetup() to prevent
-                // SHAFT Engine from extracting default property files with subdirectories that
-                // cause "Is a directory" IOException during ReportHelper.attachPropertyFiles().
-                for (String dirPath : new String[]{
-                        System.getProperty("user.dir") + File.separator + "allure-results",
-                        "src" + File.separator + "main" + File.separator + "resources" + File.separator + "properties"
-                }) {
-                    File dir = new File(dirPath);
-                    if (!dir.exists()) {
-                        if (dir.mkdirs()) {
-                            logger.debug("Created directory: {}", dirPath);
-                        } else {
-                            logger.warn("Failed to create directory: {}", dirPath);
-                        }
-                    }
+            // The engine is set up in the background at startup; only wait here if it has not finished yet
+            engineBootstrap.awaitReady();
+            String sessionId = SessionContext.currentSessionId();
+            try (Tracing.Span ignored = Tracing.start("allure.results.rotate")) {
+                allureResultsRetention.onSessionStart(sessionId, SessionRegistry.all().stream()
+                        .anyMatch(session -> !session.sessionId().equals(sessionId)));
+            }
+            LaunchProfile profile = launchProfile != null ? launchProfile : browserPool.defaultLaunchProfile();
+            SHAFT.GUI.WebDriver driver = browserPool.checkout(targetBrowser, profile);
+            BrowserSession session = new BrowserSession(sessionId, driver, targetBrowser, profile, Instant.now(), Boolean.TRUE.equals(leanMode));
+            if (networkProfile != null) {
+                try {
+                    session.networkBlocker().apply(networkProfile);
+                } catch (RuntimeException e) {
+                    browserPool.release(targetBrowser, profile, driver);
+                    throw e;
                 }
-
-                TestNGListener.engineSetup(ProjectStructureManager.RunType.AI_AGENT);
-                engineInitialized = true;
             }
-            SHAFT.Properties.web.set().targetBrowserName(targetBrowser.name());
-            driver = new SHAFT.GUI.WebDriver();
-            logger.info("Driver initialized successfully: {}", targetBrowser.name());
+            SessionRegistry.register(session)
+                    .ifPresent(previousSession -> {
+                        logger.info("Releasing previous browser of session {}", sessionId);
+                        previousSession.networkBlocker().close();
+                        browserPool.release(previousSession.browserType(), previousSession.launchProfile(), previousSession.driver());
+                    });
+            logger.info("Driver initialized successfully: {} ({}) for session {}{}", targetBrowser.name(), profile, sessionId,
+                    Boolean.TRUE.equals(leanMode) ? " in lean mode" : "");
         } catch (Exception e) {
             logger.error("Failed to initialize driver for browser: {}", targetBrowser.name(), e);
             throw e;
@@ -125,13 +233,45 @@ public class EngineService {
     }
 
     /**
-     * Quits the WebDriver, closing all associated browser windows.
+     * Replaces the browser of a session with a newly launched one of the same type, launch profile, lean mode and
+     * network profile. The session keeps its age, last activity and MCP exchange, so the reaper still expires it.
+     * The replaced browser is closed instead of being returned to the pool.
+     *
+     * @param session The session whose browser is replaced.
+     * @return The session with the new browser.
+     */
+    BrowserSession recycleDriver(BrowserSession session) {
+        SHAFT.GUI.WebDriver driver = browserPool.checkout(session.browserType(), session.launchProfile());
+        BrowserSession recycledSession = new BrowserSession(session, driver);
+        NetworkProfile networkProfile = session.networkBlocker().profile();
+        if (networkProfile != null) {
+            try {
+                recycledSession.networkBlocker().apply(networkProfile);
+            } catch (RuntimeException e) {
+                browserPool.release(session.browserType(), session.launchProfile(), driver);
+                throw e;
+            }
+        }
+        SessionRegistry.register(recycledSession);
+        session.networkBlocker().close();
+        browserPool.discard(session.driver());
+        logger.info("Replaced the {} browser of session {}", session.browserType(), session.sessionId());
+        return recycledSession;
+    }
+
+    /**
+     * Quits the WebDriver of the calling MCP session.
+     * When the browser pool is enabled the browser is reset and returned to the pool, otherwise all its windows are closed.
      */
     @Tool(name = "driver_quit", description = "closes browser")
     public void quitDriver() {
         try {
+            SHAFT.GUI.WebDriver driver = getDriver();
+            BrowserSession session = SessionRegistry.remove(SessionContext.currentSessionId()).orElseThrow();
             logger.info("Driver {} will be closed", driver);
-            driver.quit();
+            session.networkBlocker().close();
+            browserPool.release(session.browserType(), session.launchProfile(), driver);
+            sessionExecutors.close(session.sessionId());
         } catch (Exception e) {
             logger.error("Failed to close driver.", e);
             throw e;
@@ -143,16 +283,37 @@ public class EngineService {
      * This method compiles and generates a detailed test report based on the actions performed during the session.
      * It utilizes SHAFT's reporting capabilities to create a comprehensive report that includes
      * information such as test steps, outcomes, screenshots, and logs.
-     * The generated report is saved in a predefined location for easy access and review.
+     * The report is generated in the background; this method returns a job to poll with {@link #getReportStatus(String)}.
+     * A request made while another generation is running queues one follow-up generation, shared by later requests.
      * This method should be called at the end of the test session to ensure all actions are documented.
+     * @return The report generation job.
      */
-    @Tool(name = "generate_test_report", description = "generates a test report for the current session")
-    public void generateTestReport() {
+    @Tool(name = "generate_test_report", description = "starts generating a test report for the current session and returns a job ID to poll with report_get_status")
+    public ReportJob generateTestReport() {
         try {
-            AllureManager.openAllureReportAfterExecution();
-            logger.info("Test report generated successfully.");
+            ReportJob job = reportJobs.submit();
+            logger.info("Test report generation started: {}", job.jobId());
+            return job;
         } catch (Exception e) {
-            logger.error("Failed to generate test report.", e);
+            logger.error("Failed to start test report generation.", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Get the status of a test report generation.
+     * @param jobId The job ID returned by {@link #generateTestReport()}.
+     * @return The job status, including the report path once it has succeeded.
+     */
+    @Tool(name = "report_get_status", description = "gets the status of a test report generation and the report path once it is done")
+    public ReportJob getReportStatus(String jobId) {
+        try {
+            ReportJob job = reportJobs.get(jobId)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown report job: " + jobId));
+            logger.info("Test report generation {} is {}", jobId, job.state());
+            return job;
+        } catch (Exception e) {
+            logger.error("Failed to retrieve test report status for job {}.", jobId, e);
             throw e;
         }
     }
@@ -162,7 +323,6 @@ public class EngineService {
      * This is a support method for the AI agent to better explore the page.
      * @return The HTML source code of the current page as a string.
      */
-    @Tool(name = "browser_get_page_source", description = "gets the source code of the current page")
     public String getPageSource() {
         try {
             SHAFT.GUI.WebDriver driver = getDriver();
@@ -174,4 +334,113 @@ public class EngineService {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Get the source code of the current page, one page at a time when it exceeds the payload budget.
+     * The first call reads the page source; later pages are served from a short-lived copy kept for the session.
+     * @param cursor   The cursor returned with the previous page, or null for the first page.
+     * @param maxBytes The maximum page size in bytes, capped by the server's payload budget.
+     * @return A page of the page source, with its total size and the cursor of the next page.
+     */
+    @Tool(name = "browser_get_page_source", description = "gets the source code of the current page; large pages are returned in pages, pass the returned nextCursor to get the next page")
+    public TextPage getPageSource(@ToolParam(required = false, description = "nextCursor returned with the previous page") String cursor,
+                                  @ToolParam(required = false, description = "maximum page size in bytes, capped by the server's payload budget") Integer maxBytes) {
+        try {
+            TextPage page = payloadPager.page(this::getPageSource, cursor, maxBytes);
+            logger.info("Returned page source bytes {} of {}", page.offset(), page.totalBytes());
+            return page;
+        } catch (Exception e) {
+            logger.error("Failed to retrieve page source page.", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Get the source code of the current page, or only the parts that changed since a previous call.
+     * This is a support method for the AI agent to cheaply follow page updates during long sessions.
+     * A full snapshot or a diff larger than the payload budget is returned one page at a time, like
+     * {@link #getPageSource(String, Integer)}.
+     * @param sinceVersion The version token returned by the previous call, or null to get a full snapshot.
+     * @param cursor       The cursor returned with the previous page, or null for a new snapshot.
+     * @param maxBytes     The maximum page size in bytes, capped by the server's payload budget.
+     * @return The full page source, or the changed subtrees since {@code sinceVersion}, with a new version token.
+     */
+    @Tool(name = "browser_get_page_source_diff", description = "gets the source code of the current page, or only the subtrees changed since a previous version token; results larger than the payload budget are returned in pages, pass the returned nextCursor to get the next page")
+    public PageSourceDiff getPageSourceDiff(@ToolParam(required = false, description = "version token returned by the previous call; omit to get a full snapshot") String sinceVersion,
+                                            @ToolParam(required = false, description = "nextCursor returned with the previous page") String cursor,
+                                            @ToolParam(required = false, description = "maximum page size in bytes, capped by the server's payload budget") Integer maxBytes) {
+        try {
+            if (cursor != null && !cursor.isBlank()) {
+                TextPage page = payloadPager.page(() -> null, cursor, maxBytes);
+                logger.info("Returned page source diff bytes {} of {}", page.offset(), page.totalBytes());
+                return PageSourceDiff.continuation(page);
+            }
+            BrowserSession session = getSession();
+            String pageSource = session.driver().browser().getPageSource();
+            PageSourceDiff pageSourceDiff = session.pageSourceTracker().update(pageSource, sinceVersion);
+            int changes = pageSourceDiff.full() ? 0 : pageSourceDiff.changes().size();
+            String payload = pageSourceDiff.full() ? pageSourceDiff.html() : JsonParser.toJson(pageSourceDiff.changes());
+            TextPage page = payloadPager.page(() -> payload, null, maxBytes);
+            if (page.nextCursor() != null || page.truncated() != null) {
+                pageSourceDiff = pageSourceDiff.paged(page);
+            }
+            logger.info("Retrieved page source {} as {} ({} changes, {} bytes{})", pageSourceDiff.version(),
+                    pageSourceDiff.full() ? "full snapshot" : "diff from " + pageSourceDiff.baseVersion(), changes,
+                    page.totalBytes(), pageSourceDiff.page() != null ? ", paged" : "");
+            return pageSourceDiff;
+        } catch (Exception e) {
+            logger.error("Failed to retrieve page source diff.", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Get runtime statistics of this server.
+     * This is a support method for operators to size the browser pool and other server resources.
+     * @return The server statistics, grouped by component.
+     */
+    @Tool(name = "server_get_stats", description = "gets runtime statistics of the MCP server such as browser pool usage and per-tool latency")
+    public Map<String, Object> getServerStats() {
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("engineBootstrapMillis", engineBootstrap.durationMillis());
+            stats.put("activeSessions", SessionRegistry.all().size());
+            stats.put("browserPool", browserPool.stats());
+            stats.put("browserMemory", browserMemoryStats());
+            stats.put("locatorCache", locatorCache.stats());
+            stats.put("sessionExecutors", sessionExecutors.stats());
+            stats.put("allureResults", allureResultsRetention.stats());
+            stats.put("pagedResults", payloadPager.stats());
+            stats.put("tools", toolMetricsSummary.summarize());
+            logger.info("Retrieved server statistics: {}", stats);
+            return stats;
+        } catch (Exception e) {
+            logger.error("Failed to retrieve server statistics.", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Measures the memory of every active session's browser, grouped by launch profile.
+     * Only browsers running on this machine can be measured.
+     */
+    private static Map<String, Object> browserMemoryStats() {
+        Map<LaunchProfile, List<BrowserMemory.Usage>> usageByProfile = new EnumMap<>(LaunchProfile.class);
+        for (BrowserSession session : SessionRegistry.all()) {
+            BrowserMemory.measure(session.driver().getDriver())
+                    .ifPresent(usage -> usageByProfile.computeIfAbsent(session.launchProfile(), profile -> new ArrayList<>()).add(usage));
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        usageByProfile.forEach((profile, usages) -> {
+            Map<String, Object> profileStats = new LinkedHashMap<>();
+            profileStats.put("browsers", usages.size());
+            profileStats.put("averageProcesses", usages.stream().mapToInt(BrowserMemory.Usage::processes).average().orElse(0));
+            profileStats.put("averageRssBytes", (long) usages.stream().mapToLong(BrowserMemory.Usage::rssBytes).average().orElse(0));
+            usages.stream().filter(usage -> usage.pssBytes() != null).mapToLong(BrowserMemory.Usage::pssBytes).average()
+                    .ifPresent(average -> profileStats.put("averagePssBytes", (long) average));
+            profileStats.put("maxRssBytes", usages.stream().mapToLong(BrowserMemory.Usage::rssBytes).max().orElse(0));
+            stats.put(profile.name(), profileStats);
+        });
+        return stats;
+    }
+}
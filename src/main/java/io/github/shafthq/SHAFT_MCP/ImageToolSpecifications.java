@@ -0,0 +1,49 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.util.json.JsonParser;
+
+import java.util.List;
+
+/**
+ * Registers tools returning a {@link Screenshot} so that an inlined image reaches the client as an MCP image content
+ * block, with the screenshot metadata as a text block, instead of a Base64 string inside JSON text.
+ * Screenshots saved to a file are returned unchanged.
+ */
+final class ImageToolSpecifications {
+
+    private ImageToolSpecifications() {
+    }
+
+    /**
+     * @param toolCallback A tool callback whose result is a {@link Screenshot}.
+     * @return The MCP tool specification of the callback.
+     */
+    static McpServerFeatures.SyncToolSpecification from(ToolCallback toolCallback) {
+        McpServerFeatures.SyncToolSpecification specification = McpToolUtils.toSyncToolSpecification(toolCallback);
+        return McpServerFeatures.SyncToolSpecification.builder()
+                .tool(specification.tool())
+                .callHandler((exchange, request) -> toImageResult(specification.callHandler().apply(exchange, request)))
+                .build();
+    }
+
+    private static McpSchema.CallToolResult toImageResult(McpSchema.CallToolResult result) {
+        if (Boolean.TRUE.equals(result.isError()) || result.content().isEmpty()
+                || !(result.content().getFirst() instanceof McpSchema.TextContent text)) {
+            return result;
+        }
+        Screenshot screenshot = JsonParser.fromJson(text.text(), Screenshot.class);
+        if (screenshot.data() == null) {
+            return result;
+        }
+        return McpSchema.CallToolResult.builder()
+                .content(List.of(
+                        new McpSchema.ImageContent(null, screenshot.data(), screenshot.mimeType()),
+                        new McpSchema.TextContent(JsonParser.toJson(screenshot.withoutData()))))
+                .isError(false)
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+/**
+ * Named sets of browser launch options.
+ * Properties accept the enum names as well as their kebab-case form, e.g. {@code lean-headless}.
+ */
+public enum LaunchProfile {
+    /** SHAFT's own defaults, the same browser a tester gets locally. */
+    FULL,
+    /**
+     * A headless browser without GPU, extensions or background services, with a fixed window size and a capped number
+     * of renderer processes, to fit as many browsers per node as possible.
+     */
+    LEAN_HEADLESS;
+
+    static final int WINDOW_WIDTH = 1280;
+    static final int WINDOW_HEIGHT = 800;
+    static final int RENDERER_PROCESS_LIMIT = 2;
+
+    /**
+     * Builds the launch options of this profile.
+     *
+     * @param browserType The browser to launch.
+     * @return The options to launch the browser with, or {@code null} to use SHAFT's defaults.
+     */
+    MutableCapabilities options(BrowserType browserType) {
+        if (this == FULL) {
+            return null;
+        }
+        return switch (browserType) {
+            case CHROME -> leanChromium(new ChromeOptions());
+            case EDGE -> leanChromium(new EdgeOptions());
+            case FIREFOX -> leanFirefox();
+            // Safari has no headless mode and no launch flags
+            case SAFARI -> null;
+        };
+    }
+
+    boolean headless() {
+        return this == LEAN_HEADLESS;
+    }
+
+    private static MutableCapabilities leanChromium(ChromiumOptions<?> options) {
+        options.addArguments(
+                "--headless=new",
+                "--window-size=" + WINDOW_WIDTH + "," + WINDOW_HEIGHT,
+                "--renderer-process-limit=" + RENDERER_PROCESS_LIMIT,
+                "--disable-gpu",
+                "--disable-extensions",
+                "--disable-component-extensions-with-background-pages",
+                "--disable-background-networking",
+                "--disable-background-timer-throttling",
+                "--disable-backgrounding-occluded-windows",
+                "--disable-renderer-backgrounding",
+                "--disable-component-update",
+                "--disable-default-apps",
+                "--disable-sync",
+                "--disable-dev-shm-usage",
+                "--disable-features=Translate,MediaRouter,OptimizationHints,BackForwardCache,AutofillServerCommunication",
+                "--metrics-recording-only",
+                "--mute-audio",
+                "--no-first-run");
+        return options;
+    }
+
+    private static MutableCapabilities leanFirefox() {
+        FirefoxOptions options = new FirefoxOptions();
+        options.addArguments("-headless", "--width=" + WINDOW_WIDTH, "--height=" + WINDOW_HEIGHT);
+        options.addPreference("dom.ipc.processCount", RENDERER_PROCESS_LIMIT);
+        options.addPreference("layers.acceleration.disabled", true);
+        options.addPreference("gfx.webrender.software", true);
+        options.addPreference("extensions.update.enabled", false);
+        options.addPreference("app.update.enabled", false);
+        options.addPreference("browser.shell.checkDefaultBrowser", false);
+        options.addPreference("datareporting.policy.dataSubmissionEnabled", false);
+        options.addPreference("toolkit.telemetry.enabled", false);
+        options.addPreference("media.autoplay.default", 5);
+        return options;
+    }
+}
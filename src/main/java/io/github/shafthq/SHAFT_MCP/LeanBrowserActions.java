@@ -0,0 +1,310 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.shaft.driver.SHAFT;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.remote.LocalFileDetector;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Performs actions directly through Selenium, skipping SHAFT's per-action Allure steps, attachments, element
+ * highlighting and screenshots. Failures are not added to the Allure results, since no test is running to attach
+ * them to; instead a screenshot of the page is saved under {@code screenshots/} and its path is added to the error.
+ */
+final class LeanBrowserActions implements BrowserActions {
+    private static final Logger logger = LoggerFactory.getLogger(LeanBrowserActions.class);
+    private static final String SET_VALUE_SCRIPT = """
+            arguments[0].value = arguments[1];
+            arguments[0].dispatchEvent(new Event('input', {bubbles: true}));
+            arguments[0].dispatchEvent(new Event('change', {bubbles: true}));
+            """;
+    private static final String DROP_FILE_SCRIPT = """
+            const target = arguments[0];
+            const input = document.createElement('input');
+            input.type = 'file';
+            input.style.display = 'none';
+            input.addEventListener('change', () => {
+                const dataTransfer = new DataTransfer();
+                for (const file of input.files) {
+                    dataTransfer.items.add(file);
+                }
+                for (const type of ['dragenter', 'dragover', 'drop']) {
+                    target.dispatchEvent(new DragEvent(type, {bubbles: true, cancelable: true, dataTransfer}));
+                }
+                input.remove();
+            });
+            document.body.appendChild(input);
+            return input;
+            """;
+    private final WebDriver driver;
+    private final Duration timeout;
+
+    LeanBrowserActions(WebDriver driver) {
+        this.driver = driver;
+        // use the same element identification timeout as SHAFT, so both modes wait for elements alike
+        this.timeout = Duration.ofMillis((long) (SHAFT.Properties.timeouts.defaultElementIdentificationTimeout() * 1000));
+    }
+
+    @Override
+    public void hover(By locator) {
+        run("hover", () -> new Actions(driver).moveToElement(find(locator)).perform());
+    }
+
+    @Override
+    public void click(By locator) {
+        run("click", () -> findClickable(locator).click());
+    }
+
+    @Override
+    public void clickUsingJavascript(By locator) {
+        run("clickUsingJavascript", () -> ((JavascriptExecutor) driver).executeScript("arguments[0].click();", find(locator)));
+    }
+
+    @Override
+    public void doubleClick(By locator) {
+        run("doubleClick", () -> new Actions(driver).doubleClick(findClickable(locator)).perform());
+    }
+
+    @Override
+    public void clickAndHold(By locator) {
+        run("clickAndHold", () -> new Actions(driver).clickAndHold(findClickable(locator)).perform());
+    }
+
+    @Override
+    public void type(By locator, CharSequence... text) {
+        run("type", () -> {
+            WebElement element = find(locator);
+            element.clear();
+            element.sendKeys(text);
+        });
+    }
+
+    @Override
+    public void typeAppend(By locator, CharSequence... text) {
+        run("typeAppend", () -> find(locator).sendKeys(text));
+    }
+
+    @Override
+    public void setValueUsingJavaScript(By locator, String value) {
+        run("setValueUsingJavaScript", () -> ((JavascriptExecutor) driver).executeScript(SET_VALUE_SCRIPT, find(locator), value));
+    }
+
+    @Override
+    public void clear(By locator) {
+        run("clear", () -> find(locator).clear());
+    }
+
+    @Override
+    public void dropFileToUpload(By locator, String filePath) {
+        run("dropFileToUpload", () -> {
+            String path = Path.of(filePath).toAbsolutePath().toString();
+            uploadLocalFiles();
+            WebElement target = find(locator);
+            if ("input".equalsIgnoreCase(target.getTagName()) && "file".equalsIgnoreCase(target.getDomAttribute("type"))) {
+                target.sendKeys(path);
+            } else {
+                // a drop zone: select the file in a temporary file input, then drop it on the target
+                ((WebElement) ((JavascriptExecutor) driver).executeScript(DROP_FILE_SCRIPT, target)).sendKeys(path);
+            }
+        });
+    }
+
+    @Override
+    public void dragAndDrop(By sourceLocator, By targetLocator) {
+        run("dragAndDrop", () -> new Actions(driver).dragAndDrop(find(sourceLocator), find(targetLocator)).perform());
+    }
+
+    @Override
+    public void dragAndDropByOffset(By locator, int xOffset, int yOffset) {
+        run("dragAndDropByOffset", () -> new Actions(driver).dragAndDropBy(find(locator), xOffset, yOffset).perform());
+    }
+
+    @Override
+    public String getText(By locator) {
+        return get("getText", () -> find(locator).getText());
+    }
+
+    @Override
+    public String getDomAttribute(By locator, String name) {
+        return get("getDomAttribute", () -> find(locator).getDomAttribute(name));
+    }
+
+    @Override
+    public String getDomProperty(By locator, String name) {
+        return get("getDomProperty", () -> find(locator).getDomProperty(name));
+    }
+
+    @Override
+    public String getCssValue(By locator, String name) {
+        return get("getCssValue", () -> find(locator).getCssValue(name));
+    }
+
+    @Override
+    public boolean isDisplayed(By locator) {
+        return get("isDisplayed", () -> find(locator).isDisplayed());
+    }
+
+    @Override
+    public boolean isEnabled(By locator) {
+        return get("isEnabled", () -> find(locator).isEnabled());
+    }
+
+    @Override
+    public boolean isSelected(By locator) {
+        return get("isSelected", () -> find(locator).isSelected());
+    }
+
+    @Override
+    public void navigateToURL(String url) {
+        run("navigateToURL", () -> driver.get(url));
+    }
+
+    @Override
+    public void refreshCurrentPage() {
+        run("refreshCurrentPage", () -> driver.navigate().refresh());
+    }
+
+    @Override
+    public void navigateBack() {
+        run("navigateBack", () -> driver.navigate().back());
+    }
+
+    @Override
+    public void navigateForward() {
+        run("navigateForward", () -> driver.navigate().forward());
+    }
+
+    @Override
+    public void maximizeWindow() {
+        run("maximizeWindow", () -> driver.manage().window().maximize());
+    }
+
+    @Override
+    public void setWindowSize(int width, int height) {
+        run("setWindowSize", () -> driver.manage().window().setSize(new Dimension(width, height)));
+    }
+
+    @Override
+    public void fullScreenWindow() {
+        run("fullScreenWindow", () -> driver.manage().window().fullscreen());
+    }
+
+    @Override
+    public void deleteAllCookies() {
+        run("deleteAllCookies", () -> driver.manage().deleteAllCookies());
+    }
+
+    @Override
+    public void deleteCookie(String name) {
+        run("deleteCookie", () -> driver.manage().deleteCookieNamed(name));
+    }
+
+    @Override
+    public void addCookie(String name, String value) {
+        run("addCookie", () -> driver.manage().addCookie(new Cookie(name, value)));
+    }
+
+    @Override
+    public String getCookieValue(String name) {
+        return get("getCookieValue", () -> {
+            Cookie cookie = driver.manage().getCookieNamed(name);
+            return cookie == null ? null : cookie.getValue();
+        });
+    }
+
+    @Override
+    public String getAllCookies() {
+        return get("getAllCookies", () -> driver.manage().getCookies().toString());
+    }
+
+    @Override
+    public String getCurrentURL() {
+        return get("getCurrentURL", driver::getCurrentUrl);
+    }
+
+    @Override
+    public String getCurrentWindowTitle() {
+        return get("getCurrentWindowTitle", driver::getTitle);
+    }
+
+    /**
+     * Makes a remote browser upload files from this machine, since the file path is local to the server.
+     */
+    private void uploadLocalFiles() {
+        WebDriver unwrapped = driver;
+        while (unwrapped instanceof WrapsDriver wrapper && wrapper.getWrappedDriver() != unwrapped) {
+            unwrapped = wrapper.getWrappedDriver();
+        }
+        if (unwrapped instanceof RemoteWebDriver remoteDriver && !(remoteDriver.getFileDetector() instanceof LocalFileDetector)) {
+            try {
+                remoteDriver.setFileDetector(new LocalFileDetector());
+            } catch (WebDriverException e) {
+                // local drivers read the file directly and do not accept a file detector
+            }
+        }
+    }
+
+    private WebElement find(By locator) {
+        return new WebDriverWait(driver, timeout).until(ExpectedConditions.presenceOfElementLocated(locator));
+    }
+
+    private WebElement findClickable(By locator) {
+        return new WebDriverWait(driver, timeout).until(ExpectedConditions.elementToBeClickable(locator));
+    }
+
+    private void run(String action, Runnable step) {
+        get(action, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    private <T> T get(String action, Supplier<T> step) {
+        try {
+            return step.get();
+        } catch (RuntimeException e) {
+            throw captureFailure(action, e);
+        }
+    }
+
+    /**
+     * Saves a screenshot of the failed action.
+     *
+     * @return The failure with the path of the screenshot in its message, or the failure itself if no screenshot
+     * could be saved.
+     */
+    private RuntimeException captureFailure(String action, RuntimeException failure) {
+        try {
+            byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            Path directory = ScreenshotService.screenshotDirectory();
+            Files.createDirectories(directory);
+            Path file = directory.resolve(SessionContext.currentSessionId().replaceAll("[^A-Za-z0-9_-]", "_")
+                    + "-failed-" + action + "-" + System.currentTimeMillis() + ".png");
+            Files.write(file, screenshot);
+            return new IllegalStateException(failure.getMessage() + " (screenshot of the failed " + action + ": "
+                    + file.toAbsolutePath() + ")", failure);
+        } catch (RuntimeException | IOException e) {
+            logger.debug("Could not save a screenshot of the failed {} action", action, e);
+            return failure;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.openqa.selenium.By;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Bounded cache of compiled {@link By} locators keyed by locator strategy and value.
+ * Agents repeat the same handful of locators many times per task, so compiled locators are kept
+ * and the least recently used one is evicted once the cache is full.
+ */
+final class LocatorCache {
+    private final int maxSize;
+    private final Map<Key, By> locators;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize The maximum number of locators to keep.
+     */
+    LocatorCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.locators = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, By> eldest) {
+                boolean evict = size() > LocatorCache.this.maxSize;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the compiled locator for the given strategy and value, compiling and caching it on a miss.
+     *
+     * @param locatorStrategy The strategy to locate the element.
+     * @param locatorValue    The value used with the locator strategy.
+     * @param compiler        Compiles the locator on a cache miss.
+     * @return The compiled locator.
+     */
+    By get(locatorStrategy locatorStrategy, String locatorValue, BiFunction<locatorStrategy, String, By> compiler) {
+        Key key = new Key(locatorStrategy, locatorValue);
+        By locator;
+        synchronized (locators) {
+            locator = locators.get(key);
+        }
+        if (locator != null) {
+            hits.increment();
+            return locator;
+        }
+        misses.increment();
+        locator = compiler.apply(locatorStrategy, locatorValue);
+        synchronized (locators) {
+            locators.put(key, locator);
+        }
+        return locator;
+    }
+
+    /**
+     * @return The ratio of lookups served from the cache.
+     */
+    double hitRate() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        return lookups == 0 ? 0.0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Retrieves the cache statistics.
+     *
+     * @return The current size, maximum size, hit/miss/eviction counts and hit rate.
+     */
+    Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (locators) {
+            stats.put("size", locators.size());
+        }
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRate", hitRate());
+        return stats;
+    }
+
+    private record Key(locatorStrategy strategy, String value) {
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.shafthq.SHAFT_MCP;
+
+/**
+ * Bounds the size of values passed to log statements, such as element text, attribute and CSS values.
+ * Short values are logged as they are; longer values are wrapped so that only their first characters are copied, and
+ * only when the message is actually formatted.
+ */
+final class LogValues {
+    private static volatile int maxChars = 256;
+
+    private LogValues() {
+    }
+
+    /**
+     * Sets the number of characters of a value that are logged.
+     *
+     * @param chars The maximum characters, or 0 or less to log values in full.
+     */
+    static void maxChars(int chars) {
+        maxChars = chars <= 0 ? Integer.MAX_VALUE : chars;
+    }
+
+    /**
+     * Wraps a value for logging.
+     *
+     * @param value The value to log.
+     * @return The value itself if it is short enough, otherwise a wrapper whose {@code toString} is truncated.
+     */
+    static Object truncate(String value) {
+        return value == null || value.length() <= maxChars ? value : new Truncated(value);
+    }
+
+    /**
+     * Wraps typed text for logging. The values are joined with {@code ", "} and truncated only when the message is
+     * formatted, so nothing is copied when the statement is filtered out.
+     *
+     * @param values The values to log.
+     * @return A wrapper whose {@code toString} is the joined, truncated values.
+     */
+    static Object truncate(CharSequence[] values) {
+        return values == null ? null : new TruncatedJoin(values);
+    }
+
+    private record TruncatedJoin(CharSequence[] values) {
+        @Override
+        public String toString() {
+            int limit = maxChars;
+            StringBuilder joined = new StringBuilder(Math.min(limit, 64));
+            long totalLength = 0;
+            for (int index = 0; index < values.length; index++) {
+                if (index > 0) {
+                    totalLength += append(joined, ", ", limit);
+                }
+                totalLength += append(joined, values[index] == null ? "null" : values[index], limit);
+            }
+            return totalLength <= limit ? joined.toString() : joined + "... (" + totalLength + " chars)";
+        }
+
+        /**
+         * Appends as much of the text as fits in the limit, without copying the rest.
+         *
+         * @return The full length of the text.
+         */
+        private static int append(StringBuilder joined, CharSequence text, int limit) {
+            if (joined.length() < limit) {
+                joined.append(text, 0, Math.min(text.length(), limit - joined.length()));
+            }
+            return text.length();
+        }
+    }
+
+    private record Truncated(String value) {
+        @Override
+        public String toString() {
+            int limit = maxChars;
+            if (value.length() <= limit) {
+                return value;
+            }
+            return value.substring(0, limit) + "... (" + value.length() + " chars)";
+        }
+    }
+}
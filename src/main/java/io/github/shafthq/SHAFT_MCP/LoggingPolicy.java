@@ -0,0 +1,147 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.spi.FilterReply;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the server's logging policy to the tool hot path:
+ * <ul>
+ *   <li>each appender configured by Spring Boot (console, file) is moved behind an {@link AsyncAppender}, so tool
+ *   calls only enqueue their log events. Each queue is bounded: once it is 80% full, TRACE, DEBUG and INFO events are
+ *   dropped, and once it is full every event is dropped rather than blocking the call;</li>
+ *   <li>logged values are truncated to a maximum length, see {@link LogValues}; and</li>
+ *   <li>each tool can have its own minimum log level, so chatty tools can log at WARN while the rest log at INFO.</li>
+ * </ul>
+ * Tool levels are matched against the {@value #TOOL_KEY} MDC entry set by {@link SessionAwareToolCallback}, and are
+ * checked before the log message is formatted, so suppressed statements cost no allocation.
+ */
+@Component
+public class LoggingPolicy {
+    static final String TOOL_KEY = "mcp.tool";
+    static final String SESSION_KEY = "mcp.session";
+    private static final org.slf4j.Logger logger = LoggerFactory.getLogger(LoggingPolicy.class);
+    private final boolean async;
+    private final int queueSize;
+    private final int maxValueChars;
+    private final Map<String, Level> toolLevels = new HashMap<>();
+    private final List<AsyncAppender> asyncAppenders = new ArrayList<>();
+    private ToolLevelFilter filter;
+
+    public LoggingPolicy(@Value("${shaft.mcp.logging.async.enabled:true}") boolean async,
+                         @Value("${shaft.mcp.logging.async.queue-size:8192}") int queueSize,
+                         @Value("${shaft.mcp.logging.max-value-chars:256}") int maxValueChars,
+                         @Value("${shaft.mcp.logging.tool-levels:}") List<String> toolLevels) {
+        this.async = async;
+        this.queueSize = queueSize;
+        this.maxValueChars = maxValueChars;
+        for (String entry : toolLevels) {
+            String[] toolLevel = entry.split(":", 2);
+            if (toolLevel.length != 2 || toolLevel[0].isBlank()) {
+                throw new IllegalArgumentException("Expected <tool>:<level> in shaft.mcp.logging.tool-levels but got: " + entry);
+            }
+            this.toolLevels.put(toolLevel[0].trim(), Level.toLevel(toolLevel[1].trim(), Level.INFO));
+        }
+    }
+
+    @PostConstruct
+    void apply() {
+        LogValues.maxChars(maxValueChars);
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        if (async) {
+            startAsync(context);
+        }
+        if (!toolLevels.isEmpty()) {
+            filter = new ToolLevelFilter(Map.copyOf(toolLevels));
+            filter.setName("shaft-mcp-tool-levels");
+            filter.start();
+            context.addTurboFilter(filter);
+            logger.info("Applied per-tool log levels {}", toolLevels);
+        }
+    }
+
+    /**
+     * Restores the original appenders, after the queued events are written, and removes the tool levels.
+     */
+    @PreDestroy
+    void remove() {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        if (filter != null) {
+            context.getTurboFilterList().remove(filter);
+            filter.stop();
+        }
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        for (AsyncAppender asyncAppender : asyncAppenders) {
+            asyncAppender.iteratorForAppenders().forEachRemaining(root::addAppender);
+            root.detachAppender(asyncAppender);
+            asyncAppender.stop();
+        }
+        asyncAppenders.clear();
+    }
+
+    private void startAsync(LoggerContext context) {
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        root.iteratorForAppenders().forEachRemaining(appenders::add);
+        for (Appender<ILoggingEvent> appender : appenders) {
+            // an AsyncAppender writes to exactly one appender
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setName("async-" + appender.getName());
+            asyncAppender.setQueueSize(queueSize);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.setIncludeCallerData(false);
+            asyncAppender.addAppender(appender);
+            asyncAppender.start();
+            root.addAppender(asyncAppender);
+            root.detachAppender(appender);
+            asyncAppenders.add(asyncAppender);
+        }
+        if (!appenders.isEmpty()) {
+            logger.info("Logging asynchronously to {} appenders through queues of {} events", appenders.size(), queueSize);
+        }
+    }
+
+    /**
+     * Denies log statements of this server below the level configured for the tool being called.
+     */
+    static final class ToolLevelFilter extends TurboFilter {
+        private static final String PACKAGE = LoggingPolicy.class.getPackageName();
+        private final Map<String, Level> toolLevels;
+
+        ToolLevelFilter(Map<String, Level> toolLevels) {
+            this.toolLevels = toolLevels;
+        }
+
+        @Override
+        public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+            if (level == null || !logger.getName().startsWith(PACKAGE)) {
+                return FilterReply.NEUTRAL;
+            }
+            String tool = MDC.get(TOOL_KEY);
+            Level threshold = tool == null ? null : toolLevels.get(tool);
+            return threshold == null || level.isGreaterOrEqual(threshold) ? FilterReply.NEUTRAL : FilterReply.DENY;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorates a {@link ToolCallback} to record its latency, outcome and response payload size.
+ * <ul>
+ *   <li>{@value #CALLS_METRIC}: latency histogram tagged by tool, browser type and outcome</li>
+ *   <li>{@value #RESPONSE_SIZE_METRIC}: response payload size in bytes tagged by tool</li>
+ * </ul>
+ * The browser type is read from the calling session, so this callback must run inside a {@link SessionAwareToolCallback}.
+ */
+class MeteredToolCallback implements ToolCallback {
+    static final String CALLS_METRIC = "shaft.mcp.tool.calls";
+    static final String RESPONSE_SIZE_METRIC = "shaft.mcp.tool.response.size";
+    private final ToolCallback delegate;
+    private final MeterRegistry meterRegistry;
+    private final String toolName;
+    private final DistributionSummary responseSize;
+
+    MeteredToolCallback(ToolCallback delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.toolName = delegate.getToolDefinition().name();
+        this.responseSize = DistributionSummary.builder(RESPONSE_SIZE_METRIC)
+                .description("Size of MCP tool responses")
+                .baseUnit("bytes")
+                .tag("tool", toolName)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            String result = delegate.call(toolInput, toolContext);
+            outcome = "success";
+            responseSize.record(utf8Length(result));
+            return result;
+        } finally {
+            String browser = SessionRegistry.get(SessionContext.currentSessionId())
+                    .map(session -> session.browserType().name())
+                    .orElse("none");
+            Timer.builder(CALLS_METRIC)
+                    .description("Latency of MCP tool calls")
+                    .tags("tool", toolName, "browser", browser, "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Counts the UTF-8 encoded size of a string without encoding it.
+     */
+    static long utf8Length(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
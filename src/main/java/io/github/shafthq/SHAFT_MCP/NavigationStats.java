@@ -0,0 +1,25 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Set;
+
+/**
+ * Load statistics of a navigation, read from the page's Navigation and Resource Timing entries.
+ * Sizes only include resources whose transfer size the browser exposes, so cross-origin resources without a
+ * {@code Timing-Allow-Origin} header count as zero.
+ *
+ * @param url                  The URL that was navigated to.
+ * @param loadTimeMillis       The time from the start of the navigation to the end of the load event.
+ * @param transferredBytes     The bytes transferred for the document and its resources.
+ * @param resourceCount        The number of resources the page loaded.
+ * @param blockedResourceTypes The resource types blocked by the session's network profile, if any.
+ * @param blockedUrlPatterns   The number of URL patterns blocked by the session's network profile.
+ * @param bytesSaved           The bytes saved compared to the last navigation to this URL without blocking.
+ * @param loadTimeSavedMillis  The load time saved compared to the last navigation to this URL without blocking.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record NavigationStats(String url, Long loadTimeMillis, long transferredBytes, int resourceCount,
+                              Set<NetworkProfile.ResourceType> blockedResourceTypes, int blockedUrlPatterns,
+                              Long bytesSaved, Long loadTimeSavedMillis) {
+}
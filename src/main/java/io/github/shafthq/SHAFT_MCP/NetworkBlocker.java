@@ -0,0 +1,224 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.module.Network;
+import org.openqa.selenium.bidi.network.AddInterceptParameters;
+import org.openqa.selenium.bidi.network.ContinueRequestParameters;
+import org.openqa.selenium.bidi.network.InterceptPhase;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.JsonInput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a session's {@link NetworkProfile} to its browser and measures what it saves.
+ * Chromium browsers block requests through DevTools: URL patterns with {@code Network.setBlockedURLs}, and resource
+ * types by pausing requests of those types with {@code Fetch.enable} and failing them, so resources are recognized by
+ * the type the browser assigns them rather than by their URL.
+ * Other browsers fall back to a WebDriver BiDi network intercept that fails matching requests; as Selenium does not
+ * expose the request destination there, resource types are recognized by the extension at the end of the URL path.
+ * No proxy is needed either way.
+ */
+final class NetworkBlocker {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkBlocker.class);
+    private static final int MAX_BASELINES = 64;
+    private static final Event<Map<String, Object>> REQUEST_PAUSED = new Event<>("Fetch.requestPaused", NetworkBlocker::readMap);
+    private final WebDriver driver;
+    private final Map<String, NavigationStats> baselines = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, NavigationStats> eldest) {
+            return size() > MAX_BASELINES;
+        }
+    };
+    private NetworkProfile profile;
+    private List<String> blockedUrlPatterns = List.of();
+    private Set<NetworkProfile.ResourceType> blockedResourceTypes = Set.of();
+    private String mechanism = "none";
+    private Network bidiNetwork;
+    private String interceptId;
+    private DevTools devTools;
+    private volatile boolean fetchEnabled;
+
+    NetworkBlocker(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Replaces the blocked URL patterns of the browser.
+     *
+     * @param profile The profile to apply, or {@code null} to stop blocking.
+     * @return The applied profile.
+     * @throws UnsupportedOperationException if the browser supports neither DevTools nor WebDriver BiDi.
+     */
+    synchronized NetworkProfileStatus apply(NetworkProfile profile) {
+        List<String> urlPatterns = profile == null ? List.of() : profile.urlPatterns();
+        Set<NetworkProfile.ResourceType> resourceTypes = profile == null ? EnumSet.noneOf(NetworkProfile.ResourceType.class) : profile.resourceTypes();
+        boolean blocking = !urlPatterns.isEmpty() || !resourceTypes.isEmpty();
+        if (driver instanceof HasCdp cdp) {
+            cdp.executeCdpCommand("Network.enable", Map.of());
+            cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", urlPatterns));
+            applyWithDevTools(resourceTypes);
+            mechanism = blocking ? "devtools" : "none";
+        } else if (driver instanceof HasBiDi biDi && biDi.maybeGetBiDi().isPresent()) {
+            applyWithBiDi(urlPatterns, resourceTypes);
+        } else if (blocking) {
+            throw new UnsupportedOperationException("Blocking requests needs a Chromium browser or WebDriver BiDi support");
+        }
+        this.profile = blocking ? profile : null;
+        blockedUrlPatterns = List.copyOf(urlPatterns);
+        blockedResourceTypes = Set.copyOf(resourceTypes);
+        logger.debug("Blocking {} resource types and {} URL patterns through {}", blockedResourceTypes.size(), blockedUrlPatterns.size(), mechanism);
+        return status();
+    }
+
+    /**
+     * @return The applied profile, or {@code null} when nothing is blocked.
+     */
+    synchronized NetworkProfile profile() {
+        return profile;
+    }
+
+    synchronized NetworkProfileStatus status() {
+        return new NetworkProfileStatus(mechanism, blockedResourceTypes, blockedUrlPatterns);
+    }
+
+    /**
+     * Measures the navigation that just finished. Navigations without blocking are kept as the baseline of their URL,
+     * which later navigations with blocking are compared to.
+     *
+     * @param url The URL that was navigated to.
+     * @return The load statistics of the navigation.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized NavigationStats recordNavigation(String url) {
+        Map<String, Object> timing = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(PageScripts.get("navigation-stats.js"));
+        Long loadTimeMillis = timing.get("loadTimeMillis") instanceof Number number ? number.longValue() : null;
+        long transferredBytes = ((Number) timing.get("transferredBytes")).longValue();
+        int resourceCount = ((Number) timing.get("resourceCount")).intValue();
+        if (blockedUrlPatterns.isEmpty() && blockedResourceTypes.isEmpty()) {
+            NavigationStats stats = new NavigationStats(url, loadTimeMillis, transferredBytes, resourceCount, null, 0, null, null);
+            baselines.put(url, stats);
+            return stats;
+        }
+        NavigationStats baseline = baselines.get(url);
+        Long bytesSaved = baseline == null ? null : baseline.transferredBytes() - transferredBytes;
+        Long loadTimeSavedMillis = baseline == null || baseline.loadTimeMillis() == null || loadTimeMillis == null
+                ? null : baseline.loadTimeMillis() - loadTimeMillis;
+        Set<NetworkProfile.ResourceType> resourceTypes = blockedResourceTypes.isEmpty() ? null : blockedResourceTypes;
+        return new NavigationStats(url, loadTimeMillis, transferredBytes, resourceCount, resourceTypes,
+                blockedUrlPatterns.size(), bytesSaved, loadTimeSavedMillis);
+    }
+
+    /**
+     * Stops blocking, so that the browser can be returned to the pool without the session's profile.
+     */
+    synchronized void close() {
+        try {
+            apply(null);
+        } catch (RuntimeException e) {
+            logger.debug("Failed to clear the network profile", e);
+        }
+        closeBiDi();
+    }
+
+    /**
+     * Pauses requests of the blocked resource types through the Fetch domain and fails them as blocked by the client.
+     * Fetch only pauses requests matching the patterns, so other requests are not slowed down.
+     */
+    private void applyWithDevTools(Set<NetworkProfile.ResourceType> resourceTypes) {
+        if (resourceTypes.isEmpty() && !fetchEnabled) {
+            return;
+        }
+        if (!(driver instanceof HasDevTools hasDevTools)) {
+            throw new UnsupportedOperationException("Blocking resource types needs a DevTools connection to the browser");
+        }
+        if (devTools == null) {
+            DevTools connection = hasDevTools.getDevTools();
+            connection.createSessionIfThereIsNotOne();
+            // listeners cannot be removed one by one, so a blocker that stopped blocking leaves paused requests alone
+            connection.addListener(REQUEST_PAUSED, paused -> {
+                if (fetchEnabled) {
+                    connection.send(new Command<>("Fetch.failRequest",
+                            Map.of("requestId", paused.get("requestId"), "errorReason", "BlockedByClient")));
+                }
+            });
+            devTools = connection;
+        }
+        if (resourceTypes.isEmpty()) {
+            devTools.send(new Command<>("Fetch.disable", Map.of()));
+            fetchEnabled = false;
+            return;
+        }
+        List<Map<String, Object>> patterns = resourceTypes.stream()
+                .map(type -> Map.<String, Object>of("urlPattern", "*", "resourceType", type.devToolsType(), "requestStage", "Request"))
+                .toList();
+        devTools.send(new Command<>("Fetch.enable", Map.of("patterns", patterns)));
+        fetchEnabled = true;
+    }
+
+    private void applyWithBiDi(List<String> urlPatterns, Set<NetworkProfile.ResourceType> resourceTypes) {
+        closeBiDi();
+        if (urlPatterns.isEmpty() && resourceTypes.isEmpty()) {
+            mechanism = "none";
+            return;
+        }
+        List<Pattern> blocked = urlPatterns.stream().map(NetworkBlocker::toRegex).toList();
+        Network network = new Network(driver);
+        interceptId = network.addIntercept(new AddInterceptParameters(InterceptPhase.BEFORE_REQUEST_SENT));
+        network.onBeforeRequestSent(event -> {
+            String requestId = event.getRequest().getRequestId();
+            String requestUrl = event.getRequest().getUrl();
+            if (resourceTypes.stream().anyMatch(type -> type.matchesUrl(requestUrl))
+                    || blocked.stream().anyMatch(pattern -> pattern.matcher(requestUrl).matches())) {
+                network.failRequest(requestId);
+            } else {
+                network.continueRequest(new ContinueRequestParameters(requestId));
+            }
+        });
+        bidiNetwork = network;
+        mechanism = "bidi";
+    }
+
+    private void closeBiDi() {
+        if (bidiNetwork == null) {
+            return;
+        }
+        try {
+            bidiNetwork.removeIntercept(interceptId);
+            bidiNetwork.close();
+        } catch (RuntimeException e) {
+            logger.debug("Failed to remove the BiDi network intercept", e);
+        }
+        bidiNetwork = null;
+        interceptId = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readMap(JsonInput input) {
+        return (Map<String, Object>) input.read(Map.class);
+    }
+
+    /**
+     * Converts a URL pattern where {@code *} matches any characters, as used by DevTools, to a regular expression.
+     */
+    static Pattern toRegex(String urlPattern) {
+        return Pattern.compile(Arrays.stream(urlPattern.split("\\*", -1))
+                .map(Pattern::quote)
+                .collect(Collectors.joining(".*")));
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.springframework.ai.tool.annotation.ToolParam;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Requests a browser session should not load. URL patterns use {@code *} as a wildcard matching any characters.
+ *
+ * @param blockedResourceTypes The resource types to block, matched by the type the browser assigns to each request.
+ * @param blockedUrlPatterns   Additional URL patterns to block.
+ * @param blockTrackers        Whether to also block common analytics and advertising domains.
+ */
+public record NetworkProfile(
+        @ToolParam(required = false, description = "resource types to block: IMAGE, FONT, MEDIA or STYLESHEET") List<ResourceType> blockedResourceTypes,
+        @ToolParam(required = false, description = "URL patterns to block, '*' matches any characters, e.g. *example.com/ads/*") List<String> blockedUrlPatterns,
+        @ToolParam(required = false, description = "also block common analytics and advertising domains, defaults to false") Boolean blockTrackers) {
+    private static final List<String> TRACKER_PATTERNS = List.of(
+            "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*", "*googlesyndication.com*",
+            "*adservice.google.com*", "*connect.facebook.net*", "*amazon-adsystem.com*", "*hotjar.com*",
+            "*segment.io*", "*mixpanel.com*", "*scorecardresearch.com*");
+
+    /**
+     * Resource types that can be blocked, with their DevTools resource type and the file extensions they are recognized
+     * by when the browser does not report request types.
+     */
+    public enum ResourceType {
+        IMAGE("Image", "png", "jpg", "jpeg", "gif", "webp", "avif", "svg", "ico", "bmp"),
+        FONT("Font", "woff", "woff2", "ttf", "otf", "eot"),
+        MEDIA("Media", "mp4", "webm", "ogg", "ogv", "mp3", "wav", "m4a", "m4v", "mov"),
+        STYLESHEET("Stylesheet", "css");
+
+        private final String devToolsType;
+        private final List<String> extensions;
+
+        ResourceType(String devToolsType, String... extensions) {
+            this.devToolsType = devToolsType;
+            this.extensions = List.of(extensions);
+        }
+
+        /**
+         * @return The {@code Network.ResourceType} DevTools assigns to requests of this type.
+         */
+        String devToolsType() {
+            return devToolsType;
+        }
+
+        /**
+         * Recognizes a request of this type by the extension at the end of its URL path, ignoring the query and
+         * fragment, so page URLs such as {@code https://www.css-tricks.com/} are not mistaken for resources.
+         *
+         * @param url The request URL.
+         * @return Whether the URL path ends with one of the type's extensions.
+         */
+        boolean matchesUrl(String url) {
+            String path;
+            try {
+                path = URI.create(url).getRawPath();
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            if (path == null) {
+                return false;
+            }
+            int dot = path.lastIndexOf('.');
+            return dot > path.lastIndexOf('/') && extensions.contains(path.substring(dot + 1).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * @return The resource types this profile blocks.
+     */
+    Set<ResourceType> resourceTypes() {
+        Set<ResourceType> types = EnumSet.noneOf(ResourceType.class);
+        if (blockedResourceTypes != null) {
+            blockedResourceTypes.stream().filter(Objects::nonNull).forEach(types::add);
+        }
+        return types;
+    }
+
+    /**
+     * @return Every URL pattern this profile blocks, including those of trackers.
+     */
+    List<String> urlPatterns() {
+        Set<String> patterns = new LinkedHashSet<>();
+        if (blockedUrlPatterns != null) {
+            blockedUrlPatterns.stream().filter(pattern -> pattern != null && !pattern.isBlank()).forEach(patterns::add);
+        }
+        if (Boolean.TRUE.equals(blockTrackers)) {
+            patterns.addAll(TRACKER_PATTERNS);
+        }
+        return new ArrayList<>(patterns);
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The network profile applied to a browser session.
+ *
+ * @param mechanism            How requests are blocked: {@code devtools}, {@code bidi}, or {@code none} when nothing is blocked.
+ * @param blockedResourceTypes The resource types being blocked.
+ * @param blockedUrlPatterns   The URL patterns being blocked.
+ */
+public record NetworkProfileStatus(String mechanism, Set<NetworkProfile.ResourceType> blockedResourceTypes,
+                                   List<String> blockedUrlPatterns) {
+}
@@ -0,0 +1,67 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads the JavaScript snippets that tools run inside the page, from {@code src/main/resources/scripts}.
+ * Scripts are read once and kept in memory.
+ */
+final class PageScripts {
+    private static final Map<String, String> scripts = new ConcurrentHashMap<>();
+
+    private PageScripts() {
+    }
+
+    /**
+     * Retrieves the source of a page script.
+     *
+     * @param name The file name of the script, e.g. {@code page-outline.js}.
+     * @return The script source.
+     * @throws UncheckedIOException if the script cannot be read.
+     */
+    static String get(String name) {
+        return scripts.computeIfAbsent(name, PageScripts::read);
+    }
+
+    /**
+     * Runs an asynchronous page script, raising the driver's script timeout for the duration of the call so that
+     * the script can wait up to its own timeout.
+     *
+     * @param driver    The driver to run the script with.
+     * @param timeout   How long the script may wait before calling back.
+     * @param script    The script source.
+     * @param arguments The script arguments; the callback is appended by the driver.
+     * @return The value the script passed to its callback.
+     */
+    static Object executeAsync(WebDriver driver, Duration timeout, String script, Object... arguments) {
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        Duration previousTimeout = timeouts.getScriptTimeout();
+        // leave the script time to call back on its own timeout before the driver gives up
+        timeouts.scriptTimeout(timeout.plusSeconds(5));
+        try {
+            return ((JavascriptExecutor) driver).executeAsyncScript(script, arguments);
+        } finally {
+            timeouts.scriptTimeout(previousTimeout);
+        }
+    }
+
+    private static String read(String name) {
+        try (InputStream script = PageScripts.class.getResourceAsStream("/scripts/" + name)) {
+            if (script == null) {
+                throw new IOException("Page script not found: " + name);
+            }
+            return new String(script.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * The result of {@code browser_get_page_source_diff}.
+ * Either the full page source, or the subtrees that changed since the snapshot identified by {@code baseVersion}.
+ * When the full page source, or the changes serialized as JSON, exceed the payload budget, they are returned in
+ * {@code page} one page at a time instead; the pages after the first only carry {@code page}.
+ *
+ * @param version      The version token of the current snapshot, to be passed to the next call.
+ * @param baseVersion  The version the changes apply to, absent for a full snapshot.
+ * @param full         Whether the result is the full page source rather than changes.
+ * @param html         The full page source, only present for a full snapshot within the payload budget.
+ * @param changes      The changed subtrees, only present for a diff within the payload budget.
+ * @param sourceLength The length of the full current page source.
+ * @param page         A page of the full page source, or of the changes as JSON, when they exceed the payload budget.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PageSourceDiff(String version, String baseVersion, Boolean full, String html, List<DomChange> changes,
+                             Integer sourceLength, TextPage page) {
+
+    /**
+     * @return This result with its page source or changes replaced by their first page.
+     */
+    PageSourceDiff paged(TextPage firstPage) {
+        return new PageSourceDiff(version, baseVersion, full, null, null, sourceLength, firstPage);
+    }
+
+    /**
+     * @return A later page of a paged result.
+     */
+    static PageSourceDiff continuation(TextPage page) {
+        return new PageSourceDiff(null, null, null, null, null, null, page);
+    }
+}
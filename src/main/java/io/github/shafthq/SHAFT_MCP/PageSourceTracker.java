@@ -0,0 +1,36 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import java.util.List;
+
+/**
+ * Keeps the last page source snapshot returned to a session, so that later calls can return only what changed.
+ */
+final class PageSourceTracker {
+    private long versionCounter;
+    private String version;
+    private String pageSource;
+
+    /**
+     * Records a new page source snapshot and describes it relative to the requested base version.
+     * A full snapshot is returned when the base version is unknown, or when the diff would not be smaller than the page.
+     *
+     * @param currentPageSource The page source just read from the browser.
+     * @param sinceVersion      The version token the caller already holds, may be null.
+     * @return The full snapshot or the changed subtrees, with the new version token.
+     */
+    synchronized PageSourceDiff update(String currentPageSource, String sinceVersion) {
+        String previousVersion = version;
+        String previousPageSource = pageSource;
+        version = "v" + (++versionCounter);
+        pageSource = currentPageSource;
+
+        if (sinceVersion != null && sinceVersion.equals(previousVersion)) {
+            List<DomChange> changes = DomDiff.diff(previousPageSource, currentPageSource);
+            int diffLength = changes.stream().mapToInt(change -> change.selector().length() + change.html().length()).sum();
+            if (diffLength < currentPageSource.length()) {
+                return new PageSourceDiff(version, previousVersion, false, null, changes, currentPageSource.length(), null);
+            }
+        }
+        return new PageSourceDiff(version, null, true, currentPageSource, null, currentPageSource.length(), null);
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps the full text of a session's paged results, so that later pages are served without querying the browser again.
+ * Results expire after a short time, and the oldest results are dropped when the total size exceeds the limit.
+ */
+final class PagedResults {
+    private final Map<String, Entry> results = new LinkedHashMap<>();
+    private long totalBytes;
+
+    private record Entry(byte[] utf8, Instant expiresAt) {
+    }
+
+    /**
+     * Keeps a result for paging.
+     *
+     * @param utf8      The UTF-8 encoded full text.
+     * @param expiresAt The time after which the result is dropped.
+     * @param maxBytes  The maximum combined size of the session's results.
+     * @return The ID of the result, or {@code null} if it is larger than the limit on its own.
+     */
+    synchronized String put(byte[] utf8, Instant expiresAt, long maxBytes) {
+        if (utf8.length > maxBytes) {
+            return null;
+        }
+        evictExpired();
+        Iterator<Entry> oldest = results.values().iterator();
+        while (totalBytes + utf8.length > maxBytes && oldest.hasNext()) {
+            totalBytes -= oldest.next().utf8().length;
+            oldest.remove();
+        }
+        String resultId = UUID.randomUUID().toString();
+        results.put(resultId, new Entry(utf8, expiresAt));
+        totalBytes += utf8.length;
+        return resultId;
+    }
+
+    /**
+     * @param resultId The ID returned when the result was kept.
+     * @return The UTF-8 encoded full text, or {@code null} if it expired or was dropped.
+     */
+    synchronized byte[] get(String resultId) {
+        evictExpired();
+        Entry entry = results.get(resultId);
+        return entry == null ? null : entry.utf8();
+    }
+
+    synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    private void evictExpired() {
+        Instant now = Instant.now();
+        results.values().removeIf(entry -> {
+            if (entry.expiresAt().isBefore(now)) {
+                totalBytes -= entry.utf8().length;
+                return true;
+            }
+            return false;
+        });
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Splits text results that may exceed the payload budget, such as page sources, into pages.
+ * The first call reads the text from the browser and keeps it in the session's {@link PagedResults}; later calls pass
+ * the returned cursor and are served from there until the result expires.
+ */
+@Component
+public class PayloadPager {
+    private static final Logger logger = LoggerFactory.getLogger(PayloadPager.class);
+    private final int maxBytes;
+    private final long cacheBytes;
+    private final Duration cacheTtl;
+
+    public PayloadPager(@Value("${shaft.mcp.payload.max-bytes:256KB}") DataSize maxBytes,
+                        @Value("${shaft.mcp.payload.cache-size:16MB}") DataSize cacheSize,
+                        @Value("${shaft.mcp.payload.cache-ttl:PT2M}") Duration cacheTtl) {
+        this.maxBytes = Math.toIntExact(maxBytes.toBytes());
+        this.cacheBytes = cacheSize.toBytes();
+        this.cacheTtl = cacheTtl;
+    }
+
+    /**
+     * Returns one page of a text result.
+     *
+     * @param text         Reads the full text; only called when no cursor is given.
+     * @param cursor       The cursor returned with the previous page, or null for the first page.
+     * @param pageMaxBytes The maximum page size requested by the caller, capped by the server budget; null for the budget.
+     * @return The requested page.
+     * @throws IllegalArgumentException if the cursor is malformed, or its result expired.
+     */
+    TextPage page(Supplier<String> text, String cursor, Integer pageMaxBytes) {
+        return page(EngineService.getSession().pagedResults(), text, cursor, pageMaxBytes);
+    }
+
+    /**
+     * Returns one page of a text result, keeping the full text in the given results.
+     */
+    TextPage page(PagedResults pagedResults, Supplier<String> text, String cursor, Integer pageMaxBytes) {
+        int pageBytes = pageMaxBytes == null || pageMaxBytes <= 0 ? maxBytes : Math.min(pageMaxBytes, maxBytes);
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decode(cursor);
+            byte[] utf8 = pagedResults.get(position[0]);
+            if (utf8 == null) {
+                throw new IllegalArgumentException("The cursor expired after " + cacheTtl + ", call the tool again without a cursor");
+            }
+            return slice(utf8, position[0], Integer.parseInt(position[1]), pageBytes);
+        }
+        String value = text.get();
+        if (value == null) {
+            return new TextPage(null, 0, 0, null, null);
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length <= pageBytes) {
+            return new TextPage(value, 0, utf8.length, null, null);
+        }
+        String resultId = pagedResults.put(utf8, Instant.now().plus(cacheTtl), cacheBytes);
+        if (resultId == null) {
+            logger.warn("Result of {} bytes exceeds the paging cache of {} bytes, only its first page is returned", utf8.length, cacheBytes);
+            TextPage firstPage = slice(utf8, null, 0, pageBytes);
+            return new TextPage(firstPage.text(), 0, utf8.length, null, true);
+        }
+        return slice(utf8, resultId, 0, pageBytes);
+    }
+
+    /**
+     * Retrieves the paging statistics.
+     *
+     * @return The budget, the cache limits and the bytes currently kept for paging.
+     */
+    Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxBytes", maxBytes);
+        stats.put("cacheBytesPerSession", cacheBytes);
+        stats.put("cacheTtl", cacheTtl.toString());
+        stats.put("cachedBytes", SessionRegistry.all().stream().mapToLong(session -> session.pagedResults().totalBytes()).sum());
+        return stats;
+    }
+
+    private static TextPage slice(byte[] utf8, String resultId, int offset, int pageBytes) {
+        if (offset < 0 || offset > utf8.length) {
+            throw new IllegalArgumentException("Cursor offset " + offset + " is outside the result of " + utf8.length + " bytes");
+        }
+        int end = Math.min(utf8.length, offset + pageBytes);
+        // never end a page in the middle of a multi-byte character
+        while (end < utf8.length && end > offset && (utf8[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        if (end == offset && offset < utf8.length) {
+            // the page is smaller than the character, so return the character alone
+            end++;
+            while (end < utf8.length && (utf8[end] & 0xC0) == 0x80) {
+                end++;
+            }
+        }
+        String nextCursor = end < utf8.length && resultId != null ? encode(resultId, end) : null;
+        return new TextPage(new String(utf8, offset, end - offset, StandardCharsets.UTF_8), offset, utf8.length, nextCursor, null);
+    }
+
+    private static String encode(String resultId, int offset) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((resultId + ":" + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 2);
+            if (position.length == 2 && position[1].chars().allMatch(Character::isDigit) && !position[1].isEmpty()) {
+                return position;
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Malformed cursor: " + cursor);
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * The status of a background test report generation.
+ *
+ * @param jobId          The job ID to poll with {@code report_get_status}.
+ * @param state          The job state.
+ * @param reportPath     The directory holding the generated report, once the job has succeeded.
+ * @param error          The failure message, if the job has failed.
+ * @param startedAt      When the generation started, or was queued while it waits for the running one.
+ * @param durationMillis How long the generation took, once it has finished.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ReportJob(String jobId, State state, String reportPath, String error, Instant startedAt, Long durationMillis) {
+
+    /**
+     * Report generation states.
+     */
+    public enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+}
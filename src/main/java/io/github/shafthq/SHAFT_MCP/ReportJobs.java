@@ -0,0 +1,145 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.shaft.tools.io.internal.AllureManager;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Generates Allure test reports in the background, so that report tools return immediately.
+ * All sessions write to the same results directory, so at most one generation runs at a time. A request made while a
+ * generation is running queues one follow-up generation, which starts when the running one finishes and so includes
+ * results written after it started; further requests join the queued generation.
+ */
+@Component
+public class ReportJobs {
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobs.class);
+    private static final int MAX_FINISHED_JOBS = 20;
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService reportExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("shaft-report").daemon(true).factory());
+    private final Runnable generator;
+    private ReportJob runningJob;
+    private ReportJob queuedJob;
+
+    public ReportJobs() {
+        this(AllureManager::openAllureReportAfterExecution);
+    }
+
+    ReportJobs(Runnable generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * Starts a report generation, or queues one to run after the generation that is already running.
+     *
+     * @return The started or queued job.
+     */
+    synchronized ReportJob submit() {
+        if (queuedJob != null) {
+            logger.info("Report generation {} is already queued, joining it", queuedJob.jobId());
+            return queuedJob;
+        }
+        pruneFinishedJobs();
+        if (runningJob != null) {
+            queuedJob = new ReportJob(UUID.randomUUID().toString(), ReportJob.State.QUEUED, null, null, Instant.now(), null);
+            jobs.put(queuedJob.jobId(), queuedJob);
+            logger.info("Report generation {} is running, queued {} to follow it", runningJob.jobId(), queuedJob.jobId());
+            return queuedJob;
+        }
+        return start(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Whether a report generation is running or queued.
+     */
+    synchronized boolean isBusy() {
+        return runningJob != null || queuedJob != null;
+    }
+
+    /**
+     * Retrieves the status of a report generation.
+     *
+     * @param jobId The job ID returned when the generation was requested.
+     * @return The job status, if the job is known.
+     */
+    Optional<ReportJob> get(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private synchronized ReportJob start(String jobId) {
+        ReportJob job = new ReportJob(jobId, ReportJob.State.RUNNING, null, null, Instant.now(), null);
+        jobs.put(job.jobId(), job);
+        runningJob = job;
+        reportExecutor.execute(() -> generate(job));
+        return job;
+    }
+
+    private void generate(ReportJob job) {
+        ReportJob finishedJob = null;
+        try (Tracing.Span span = Tracing.startTrace("allure.report.generate")) {
+            span.attribute("shaft.mcp.report.job", job.jobId());
+            try {
+                generator.run();
+            } catch (Throwable e) {
+                span.error(e);
+                throw e;
+            }
+            String reportPath = System.getProperty("user.dir") + File.separator + "allure-report";
+            finishedJob = new ReportJob(job.jobId(), ReportJob.State.SUCCEEDED, reportPath, null, job.startedAt(), elapsedMillis(job));
+            logger.info("Report generation {} succeeded in {} ms", job.jobId(), finishedJob.durationMillis());
+        } catch (Throwable e) {
+            // SHAFT reports failures as AssertionError
+            logger.error("Report generation {} failed", job.jobId(), e);
+            finishedJob = new ReportJob(job.jobId(), ReportJob.State.FAILED, null, String.valueOf(e.getMessage()), job.startedAt(), elapsedMillis(job));
+        } finally {
+            finish(job, finishedJob);
+        }
+    }
+
+    private synchronized void finish(ReportJob job, ReportJob finishedJob) {
+        jobs.put(job.jobId(), finishedJob != null ? finishedJob
+                : new ReportJob(job.jobId(), ReportJob.State.FAILED, null, "Report generation was interrupted", job.startedAt(), elapsedMillis(job)));
+        runningJob = null;
+        if (queuedJob != null) {
+            String nextJobId = queuedJob.jobId();
+            queuedJob = null;
+            try {
+                start(nextJobId);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Report executor is shut down, dropping queued generation {}", nextJobId);
+                runningJob = null;
+                jobs.remove(nextJobId);
+            }
+        }
+    }
+
+    private void pruneFinishedJobs() {
+        jobs.values().stream()
+                .filter(job -> job.state() == ReportJob.State.SUCCEEDED || job.state() == ReportJob.State.FAILED)
+                .sorted((first, second) -> second.startedAt().compareTo(first.startedAt()))
+                .skip(MAX_FINISHED_JOBS - 1)
+                .forEach(job -> jobs.remove(job.jobId()));
+    }
+
+    private static long elapsedMillis(ReportJob job) {
+        return Duration.between(job.startedAt(), Instant.now()).toMillis();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reportExecutor.shutdownNow();
+    }
+}
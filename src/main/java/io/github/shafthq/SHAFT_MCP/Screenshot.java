@@ -0,0 +1,26 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The result of the screenshot tools: either the inlined image or the path of the file it was saved to.
+ *
+ * @param mimeType  The MIME type of the image.
+ * @param width     The width of the image in pixels.
+ * @param height    The height of the image in pixels.
+ * @param sizeBytes The size of the encoded image.
+ * @param data      The Base64-encoded image, absent when it was saved to a file.
+ * @param path      The absolute path of the saved image, absent when it is inlined.
+ * @param truncated Whether a full page was taller than the maximum height and was cut off.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Screenshot(String mimeType, int width, int height, long sizeBytes, String data, String path,
+                         Boolean truncated) {
+
+    /**
+     * @return This screenshot without its image data, to describe an image returned as a separate content block.
+     */
+    Screenshot withoutData() {
+        return new Screenshot(mimeType, width, height, sizeBytes, null, path, truncated);
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.shafthq.SHAFT_MCP;
+
+/**
+ * Image formats supported by the screenshot tools.
+ */
+public enum ScreenshotFormat {
+    PNG("png", "image/png"),
+    JPEG("jpg", "image/jpeg"),
+    WEBP("webp", "image/webp");
+
+    private final String extension;
+    private final String mimeType;
+
+    ScreenshotFormat(String extension, String mimeType) {
+        this.extension = extension;
+        this.mimeType = mimeType;
+    }
+
+    String extension() {
+        return extension;
+    }
+
+    String mimeType() {
+        return mimeType;
+    }
+}
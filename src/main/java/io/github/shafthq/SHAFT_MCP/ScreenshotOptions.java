@@ -0,0 +1,69 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.springframework.ai.tool.annotation.ToolParam;
+
+import java.awt.Rectangle;
+
+/**
+ * Options of the screenshot tools. Every option is optional.
+ *
+ * @param format     The image format, defaults to JPEG.
+ * @param quality    The JPEG or WebP quality from 1 to 100, defaults to 80.
+ * @param maxWidth   The maximum width of the returned image in pixels; larger screenshots are downscaled.
+ * @param clipX      The left edge of the region to crop, in pixels of the captured image.
+ * @param clipY      The top edge of the region to crop, in pixels of the captured image.
+ * @param clipWidth  The width of the region to crop.
+ * @param clipHeight The height of the region to crop.
+ * @param saveToFile Whether to save the image to a file and return its path instead of inlining it.
+ */
+public record ScreenshotOptions(
+        @ToolParam(required = false, description = "PNG, JPEG or WEBP, defaults to JPEG") ScreenshotFormat format,
+        @ToolParam(required = false, description = "JPEG/WEBP quality from 1 to 100, defaults to 80") Integer quality,
+        @ToolParam(required = false, description = "maximum width in pixels, larger images are downscaled, defaults to 1280") Integer maxWidth,
+        @ToolParam(required = false, description = "left edge of the region to crop, in pixels") Integer clipX,
+        @ToolParam(required = false, description = "top edge of the region to crop, in pixels") Integer clipY,
+        @ToolParam(required = false, description = "width of the region to crop, in pixels") Integer clipWidth,
+        @ToolParam(required = false, description = "height of the region to crop, in pixels") Integer clipHeight,
+        @ToolParam(required = false, description = "save the image to a file and return its path instead of the image, defaults to false") Boolean saveToFile) {
+    static final ScreenshotOptions DEFAULTS = new ScreenshotOptions(null, null, null, null, null, null, null, null);
+    private static final int DEFAULT_QUALITY = 80;
+    private static final int DEFAULT_MAX_WIDTH = 1280;
+
+    ScreenshotFormat formatOrDefault() {
+        return format == null ? ScreenshotFormat.JPEG : format;
+    }
+
+    float compressionQuality() {
+        return Math.clamp(quality == null ? DEFAULT_QUALITY : quality, 1, 100) / 100f;
+    }
+
+    int maxWidthOrDefault() {
+        return maxWidth == null || maxWidth < 1 ? DEFAULT_MAX_WIDTH : maxWidth;
+    }
+
+    boolean hasClip() {
+        return clipX != null || clipY != null || clipWidth != null || clipHeight != null;
+    }
+
+    /**
+     * Resolves the crop region within an image, clamped to its bounds.
+     *
+     * @param width  The width of the captured image.
+     * @param height The height of the captured image.
+     * @return The region to keep, the whole image when no region was requested.
+     */
+    Rectangle region(int width, int height) {
+        int x = Math.clamp(clipX == null ? 0 : clipX, 0, width - 1);
+        int y = Math.clamp(clipY == null ? 0 : clipY, 0, height - 1);
+        int regionWidth = Math.clamp(clipWidth == null ? width : clipWidth, 1, width - x);
+        int regionHeight = Math.clamp(clipHeight == null ? height : clipHeight, 1, height - y);
+        return new Rectangle(x, y, regionWidth, regionHeight);
+    }
+
+    /**
+     * @return These options without the crop region, for screenshots the browser already cropped.
+     */
+    ScreenshotOptions withoutClip() {
+        return new ScreenshotOptions(format, quality, maxWidth, null, null, null, null, saveToFile);
+    }
+}
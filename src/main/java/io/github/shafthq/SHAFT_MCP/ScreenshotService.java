@@ -0,0 +1,381 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import jakarta.annotation.PreDestroy;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.firefox.HasFullPageScreenshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+import static io.github.shafthq.SHAFT_MCP.EngineService.getDriver;
+import static io.github.shafthq.SHAFT_MCP.EngineService.getLocator;
+
+/**
+ * Screenshot tools. Images are cropped, downscaled and encoded on a small bounded pool of encoder threads, so that
+ * concurrent screenshots of very tall pages cannot exhaust the heap. Captured images are decoded with subsampling,
+ * which keeps the decoded image close to the requested output size.
+ * Screenshots saved under {@code screenshots/} are removed in the background once they are older than the maximum age,
+ * oldest first while the directory exceeds the maximum size.
+ */
+@Service
+public class ScreenshotService {
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotService.class);
+    private static final int MAX_IMAGE_HEIGHT = 16384;
+    private static final long ENCODE_TIMEOUT_SECONDS = 60;
+    private final long maxInlineBytes;
+    private final Path screenshotDirectory;
+    private final long maxSavedBytes;
+    private final Duration maxSavedAge;
+    private final ExecutorService encoder;
+
+    public ScreenshotService(@Value("${shaft.mcp.screenshot.max-inline-size:1MB}") DataSize maxInlineSize,
+                             @Value("${shaft.mcp.screenshot.encoder-threads:2}") int encoderThreads,
+                             @Value("${shaft.mcp.screenshot.max-size:256MB}") DataSize maxSavedSize,
+                             @Value("${shaft.mcp.screenshot.max-age:P1D}") Duration maxSavedAge) {
+        this.maxInlineBytes = maxInlineSize.toBytes();
+        this.screenshotDirectory = screenshotDirectory();
+        this.maxSavedBytes = maxSavedSize.toBytes();
+        this.maxSavedAge = maxSavedAge;
+        int threads = Math.max(1, encoderThreads);
+        this.encoder = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(threads * 4),
+                Thread.ofPlatform().name("shaft-screenshot-", 0).daemon(true).factory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Takes a screenshot of the visible part of the current page.
+     *
+     * @param options The format, quality, downscaling, crop region and output options.
+     * @return The image, inlined or saved to a file.
+     */
+    @Tool(name = "browser_take_screenshot", description = "takes a screenshot of the visible part of the page, optionally cropped, downscaled or saved to a file")
+    public Screenshot takeScreenshot(@ToolParam(required = false, description = "format, quality, maxWidth, crop region and saveToFile options") ScreenshotOptions options) {
+        try {
+            byte[] image = ((TakesScreenshot) getDriver().getDriver()).getScreenshotAs(OutputType.BYTES);
+            Screenshot screenshot = encode(image, orDefaults(options), null);
+            logger.info("Took a {}x{} viewport screenshot", screenshot.width(), screenshot.height());
+            return screenshot;
+        } catch (Exception e) {
+            logger.error("Failed to take a viewport screenshot.", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a screenshot of the whole page, including the parts outside the viewport.
+     * Chromium browsers crop and downscale while rendering, other browsers fall back to the viewport unless they
+     * support full page screenshots natively.
+     *
+     * @param options The format, quality, downscaling, crop region and output options.
+     * @return The image, inlined or saved to a file.
+     */
+    @Tool(name = "browser_take_full_page_screenshot", description = "takes a screenshot of the whole scrollable page, optionally cropped, downscaled or saved to a file")
+    public Screenshot takeFullPageScreenshot(@ToolParam(required = false, description = "format, quality, maxWidth, crop region and saveToFile options") ScreenshotOptions options) {
+        try {
+            ScreenshotOptions resolvedOptions = orDefaults(options);
+            WebDriver driver = getDriver().getDriver();
+            Screenshot screenshot;
+            if (driver instanceof HasCdp cdp) {
+                screenshot = captureFullPageWithCdp(cdp, resolvedOptions);
+            } else if (driver instanceof HasFullPageScreenshot firefox) {
+                screenshot = encode(firefox.getFullPageScreenshotAs(OutputType.BYTES), resolvedOptions, null);
+            } else {
+                logger.warn("{} does not support full page screenshots, capturing the viewport instead", driver.getClass().getSimpleName());
+                screenshot = encode(((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES), resolvedOptions, null);
+            }
+            logger.info("Took a {}x{} full page screenshot", screenshot.width(), screenshot.height());
+            return screenshot;
+        } catch (Exception e) {
+            logger.error("Failed to take a full page screenshot.", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a screenshot of an element identified by the specified locator strategy and value.
+     *
+     * @param locatorStrategy The strategy to locate the element (e.g., ID, XPATH).
+     * @param locatorValue    The value used with the locator strategy to find the element.
+     * @param options         The format, quality, downscaling, crop region and output options.
+     * @return The image, inlined or saved to a file.
+     */
+    @Tool(name = "element_take_screenshot", description = "takes a screenshot of an element, optionally cropped, downscaled or saved to a file")
+    public Screenshot takeElementScreenshot(locatorStrategy locatorStrategy, String locatorValue,
+                                            @ToolParam(required = false, description = "format, quality, maxWidth, crop region and saveToFile options") ScreenshotOptions options) {
+        try {
+            byte[] image = getDriver().getDriver().findElement(getLocator(locatorStrategy, locatorValue)).getScreenshotAs(OutputType.BYTES);
+            Screenshot screenshot = encode(image, orDefaults(options), null);
+            logger.info("Took a {}x{} screenshot of element with locator: {} - {}", screenshot.width(), screenshot.height(), locatorStrategy, locatorValue);
+            return screenshot;
+        } catch (Exception e) {
+            logger.error("Failed to take a screenshot of element with locator: {} - {}", locatorStrategy, locatorValue, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes saved screenshots older than the maximum age, then the oldest ones while the total size exceeds the
+     * maximum size.
+     */
+    @Scheduled(fixedDelayString = "${shaft.mcp.screenshot.cleanup-interval:PT10M}", initialDelayString = "${shaft.mcp.screenshot.cleanup-interval:PT10M}")
+    void cleanUp() {
+        if (!Files.isDirectory(screenshotDirectory)) {
+            return;
+        }
+        List<SavedScreenshot> screenshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(screenshotDirectory)) {
+            for (Path file : files.toList()) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (attributes.isRegularFile()) {
+                    screenshots.add(new SavedScreenshot(file, attributes.lastModifiedTime().toInstant(), attributes.size()));
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Failed to list saved screenshots", e);
+            return;
+        }
+        screenshots.sort(Comparator.comparing(SavedScreenshot::savedAt));
+        Instant oldestAllowed = Instant.now().minus(maxSavedAge);
+        long totalBytes = screenshots.stream().mapToLong(SavedScreenshot::bytes).sum();
+        int deleted = 0;
+        for (SavedScreenshot screenshot : screenshots) {
+            if (!screenshot.savedAt().isBefore(oldestAllowed) && totalBytes <= maxSavedBytes) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(screenshot.file());
+                totalBytes -= screenshot.bytes();
+                deleted++;
+            } catch (IOException e) {
+                logger.warn("Failed to delete saved screenshot {}", screenshot.file(), e);
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} saved screenshots, {} bytes remain", deleted, totalBytes);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        encoder.shutdownNow();
+    }
+
+    /**
+     * @return The directory of saved screenshots, including those of failed lean mode actions.
+     */
+    static Path screenshotDirectory() {
+        return Path.of(System.getProperty("user.dir"), "screenshots");
+    }
+
+    /**
+     * Renders the page with the DevTools protocol, letting the browser crop to the requested region and downscale to the
+     * requested width, and caps the rendered height so that the browser never produces an oversized bitmap.
+     */
+    @SuppressWarnings("unchecked")
+    private Screenshot captureFullPageWithCdp(HasCdp cdp, ScreenshotOptions options) {
+        Map<String, Object> metrics = cdp.executeCdpCommand("Page.getLayoutMetrics", Map.of());
+        Map<String, Object> contentSize = (Map<String, Object>) metrics.getOrDefault("cssContentSize", metrics.get("contentSize"));
+        int pageWidth = ((Number) contentSize.get("width")).intValue();
+        int pageHeight = ((Number) contentSize.get("height")).intValue();
+        Rectangle region = options.region(pageWidth, pageHeight);
+        double scale = Math.min(1.0, (double) options.maxWidthOrDefault() / region.width);
+        int regionHeight = (int) Math.min(region.height, MAX_IMAGE_HEIGHT / scale);
+
+        Map<String, Object> clip = new LinkedHashMap<>();
+        clip.put("x", region.x);
+        clip.put("y", region.y);
+        clip.put("width", region.width);
+        clip.put("height", regionHeight);
+        clip.put("scale", scale);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        // PNG keeps the capture lossless; the requested format and quality are applied when encoding
+        parameters.put("format", "png");
+        parameters.put("captureBeyondViewport", true);
+        parameters.put("clip", clip);
+        Map<String, Object> result = cdp.executeCdpCommand("Page.captureScreenshot", parameters);
+        byte[] image = Base64.getDecoder().decode((String) result.get("data"));
+        return encode(image, options.withoutClip(), regionHeight < region.height ? Boolean.TRUE : null);
+    }
+
+    /**
+     * Crops, downscales and encodes a captured image on the encoder pool, then inlines it or saves it to a file.
+     */
+    private Screenshot encode(byte[] capturedImage, ScreenshotOptions options, Boolean truncated) {
+        Future<EncodedImage> task;
+        try {
+            task = encoder.submit(() -> process(capturedImage, options));
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Server busy: too many screenshots are being encoded, retry shortly", e);
+        }
+        EncodedImage image;
+        try {
+            image = task.get(ENCODE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            // free the encoder thread for other callers rather than finishing an image nobody will read
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while encoding the screenshot", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to encode the screenshot: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            throw new IllegalStateException("Timed out encoding the screenshot", e);
+        }
+
+        String mimeType = image.format().mimeType();
+        if (Boolean.TRUE.equals(options.saveToFile()) || image.bytes().length > maxInlineBytes) {
+            Path file = save(image.bytes(), image.format());
+            return new Screenshot(mimeType, image.width(), image.height(), image.bytes().length, null, file.toString(), truncated);
+        }
+        return new Screenshot(mimeType, image.width(), image.height(), image.bytes().length,
+                Base64.getEncoder().encodeToString(image.bytes()), null, truncated);
+    }
+
+    private Path save(byte[] image, ScreenshotFormat format) {
+        try {
+            Files.createDirectories(screenshotDirectory);
+            Path file = screenshotDirectory.resolve(SessionContext.currentSessionId().replaceAll("[^A-Za-z0-9_-]", "_")
+                    + "-" + System.currentTimeMillis() + "." + format.extension());
+            Files.write(file, image);
+            return file.toAbsolutePath();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save the screenshot", e);
+        }
+    }
+
+    private record EncodedImage(byte[] bytes, int width, int height, ScreenshotFormat format) {
+    }
+
+    private record SavedScreenshot(Path file, Instant savedAt, long bytes) {
+    }
+
+    private static EncodedImage process(byte[] capturedImage, ScreenshotOptions options) throws IOException {
+        BufferedImage image = read(capturedImage, options);
+        int maxWidth = options.maxWidthOrDefault();
+        if (image.getWidth() > maxWidth) {
+            image = toRgb(image, maxWidth, Math.max(1, (int) ((long) image.getHeight() * maxWidth / image.getWidth())));
+        }
+        ScreenshotFormat format = options.formatOrDefault();
+        ImageWriter writer = writerFor(format);
+        if (writer == null) {
+            // the JDK has no WebP encoder; use JPEG unless an ImageIO WebP plugin is on the classpath
+            format = ScreenshotFormat.JPEG;
+            writer = writerFor(format);
+        }
+        if (format != ScreenshotFormat.PNG && image.getColorModel().hasAlpha()) {
+            image = toRgb(image, image.getWidth(), image.getHeight());
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(imageOutput);
+            ImageWriteParam parameters = writer.getDefaultWriteParam();
+            if (format != ScreenshotFormat.PNG && parameters.canWriteCompressed()) {
+                parameters.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (parameters.getCompressionType() == null) {
+                    parameters.setCompressionType(parameters.getCompressionTypes()[0]);
+                }
+                parameters.setCompressionQuality(options.compressionQuality());
+            }
+            writer.write(null, new IIOImage(image, null, null), parameters);
+        } finally {
+            writer.dispose();
+        }
+        return new EncodedImage(output.toByteArray(), image.getWidth(), image.getHeight(), format);
+    }
+
+    /**
+     * Decodes only the requested region, subsampled by the largest whole factor that keeps the image at least as wide
+     * as the requested width and no taller than the maximum height.
+     */
+    private static BufferedImage read(byte[] capturedImage, ScreenshotOptions options) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(capturedImage))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported screenshot image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                Rectangle region = options.region(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, region.width / options.maxWidthOrDefault());
+                subsampling = Math.max(subsampling, (region.height + MAX_IMAGE_HEIGHT - 1) / MAX_IMAGE_HEIGHT);
+                ImageReadParam parameters = reader.getDefaultReadParam();
+                parameters.setSourceRegion(region);
+                parameters.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, parameters);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Redraws an image as opaque RGB at the given size, which JPEG encoding requires.
+     */
+    private static BufferedImage toRgb(BufferedImage image, int width, int height) {
+        BufferedImage rgb = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    private static ImageWriter writerFor(ScreenshotFormat format) {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(format.mimeType());
+        return writers.hasNext() ? writers.next() : null;
+    }
+
+    private static ScreenshotOptions orDefaults(ScreenshotOptions options) {
+        return options == null ? ScreenshotOptions.DEFAULTS : options;
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the server's session, browser pool, locator cache and tracing statistics as metrics.
+ */
+@Component
+public class ServerMetrics implements MeterBinder {
+    private final BrowserPool browserPool;
+    private final TraceFileExporter traceFileExporter;
+
+    public ServerMetrics(BrowserPool browserPool, TraceFileExporter traceFileExporter) {
+        this.browserPool = browserPool;
+        this.traceFileExporter = traceFileExporter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shaft.mcp.sessions.active", () -> SessionRegistry.all().size())
+                .description("Browser sessions currently owned by MCP sessions")
+                .register(registry);
+        FunctionCounter.builder("shaft.mcp.pool.checkouts", browserPool, BrowserPool::hits)
+                .description("Browser pool checkouts")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("shaft.mcp.pool.checkouts", browserPool, BrowserPool::misses)
+                .description("Browser pool checkouts")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("shaft.mcp.pool.idle", browserPool, BrowserPool::idleCount)
+                .description("Pre-launched browsers waiting in the pool")
+                .register(registry);
+        Gauge.builder("shaft.mcp.locator.cache.hit.ratio", EngineService::locatorCacheHitRate)
+                .description("Hit ratio of the compiled locator cache")
+                .register(registry);
+        FunctionCounter.builder("shaft.mcp.tracing.spans", traceFileExporter, TraceFileExporter::exportedSpans)
+                .description("Spans written to the trace file")
+                .tag("result", "exported")
+                .register(registry);
+        FunctionCounter.builder("shaft.mcp.tracing.spans", traceFileExporter, TraceFileExporter::droppedSpans)
+                .description("Spans written to the trace file")
+                .tag("result", "dropped")
+                .register(registry);
+    }
+}
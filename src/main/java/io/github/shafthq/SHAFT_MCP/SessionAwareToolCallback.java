@@ -0,0 +1,110 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import org.slf4j.MDC;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorates a {@link ToolCallback} so that the MCP session issuing the call is bound to the
+ * executing thread before the tool method runs, and so that calls of the same session run one at a time.
+ * The session ID is taken from the MCP exchange that Spring AI places in the {@link ToolContext}.
+ */
+class SessionAwareToolCallback implements ToolCallback {
+    private final ToolCallback delegate;
+    private final SessionExecutors sessionExecutors;
+
+    SessionAwareToolCallback(ToolCallback delegate, SessionExecutors sessionExecutors) {
+        this.delegate = delegate;
+        this.sessionExecutors = sessionExecutors;
+    }
+
+    /**
+     * Resolves the MCP session ID from the tool context.
+     *
+     * @param toolContext The tool context supplied by the MCP server, may be null.
+     * @return The MCP session ID, or {@link SessionContext#DEFAULT_SESSION_ID} if none is available.
+     */
+    static String resolveSessionId(ToolContext toolContext) {
+        if (toolContext == null) {
+            return SessionContext.DEFAULT_SESSION_ID;
+        }
+        return McpToolUtils.getMcpExchange(toolContext)
+                .map(McpSyncServerExchange::sessionId)
+                .orElse(SessionContext.DEFAULT_SESSION_ID);
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        String sessionId = resolveSessionId(toolContext);
+        // the browser session is tracked as busy, so the reaper does not consider it idle while its calls run or wait
+        BrowserSession session = SessionRegistry.get(sessionId).orElse(null);
+        if (session != null) {
+            session.beginCall();
+        }
+        long queuedAt = System.nanoTime();
+        try {
+            return sessionExecutors.call(sessionId,
+                    () -> SessionContext.callWithin(sessionId, () -> traced(sessionId, queuedAt, toolInput, toolContext)));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            if (session != null) {
+                session.endCall();
+            }
+            McpSyncServerExchange exchange = toolContext == null ? null : McpToolUtils.getMcpExchange(toolContext).orElse(null);
+            SessionRegistry.get(sessionId).ifPresent(current -> current.touch(exchange));
+        }
+    }
+
+    /**
+     * Runs the call in the root span of its trace, with the tool and session in the logging MDC.
+     * The time of the span not covered by its children is spent in argument deserialization, result serialization
+     * and the tool's own logic.
+     */
+    private String traced(String sessionId, long queuedAt, String toolInput, ToolContext toolContext) {
+        String toolName = delegate.getToolDefinition().name();
+        MDC.put(LoggingPolicy.TOOL_KEY, toolName);
+        MDC.put(LoggingPolicy.SESSION_KEY, sessionId);
+        try (Tracing.Span span = Tracing.startTrace("tool " + toolName)) {
+            span.attribute("mcp.session.id", sessionId)
+                    .attribute("mcp.tool.name", toolName)
+                    .attribute("mcp.request.size", toolInput == null ? 0 : toolInput.length())
+                    .attribute("shaft.mcp.queue.wait_ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedAt));
+            SessionRegistry.get(sessionId).ifPresent(session -> span
+                    .attribute("shaft.mcp.browser", session.browserType().name())
+                    .attribute("shaft.mcp.lean_mode", session.leanMode()));
+            try {
+                return delegate.call(toolInput, toolContext);
+            } catch (RuntimeException e) {
+                span.error(e);
+                throw e;
+            }
+        } finally {
+            MDC.remove(LoggingPolicy.TOOL_KEY);
+            MDC.remove(LoggingPolicy.SESSION_KEY);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Holds the MCP session that the current thread is serving.
+ * The session is bound by {@link SessionAwareToolCallback} for the duration of a tool call,
+ * so that {@link EngineService#getDriver()} resolves the browser that belongs to the calling agent.
+ * Calls made outside a tool invocation (STDIO clients without a session, tests) fall back to
+ * {@link #DEFAULT_SESSION_ID}.
+ */
+final class SessionContext {
+    /**
+     * Session ID used when no MCP session is bound to the current thread.
+     */
+    static final String DEFAULT_SESSION_ID = "default";
+    private static final ThreadLocal<String> currentSession = new ThreadLocal<>();
+
+    private SessionContext() {
+    }
+
+    /**
+     * Retrieves the session ID bound to the current thread.
+     *
+     * @return The bound session ID, or {@link #DEFAULT_SESSION_ID} if none is bound.
+     */
+    static String currentSessionId() {
+        String sessionId = currentSession.get();
+        return sessionId != null ? sessionId : DEFAULT_SESSION_ID;
+    }
+
+    /**
+     * Runs the given task with the specified session bound to the current thread,
+     * restoring the previous binding afterwards.
+     *
+     * @param sessionId The session ID to bind.
+     * @param task      The task to run.
+     * @return The result of the task.
+     * @throws Exception if the task fails.
+     */
+    static <T> T callWithin(String sessionId, Callable<T> task) throws Exception {
+        String previousSession = currentSession.get();
+        currentSession.set(sessionId);
+        try {
+            return task.call();
+        } finally {
+            if (previousSession != null) {
+                currentSession.set(previousSession);
+            } else {
+                currentSession.remove();
+            }
+        }
+    }
+}
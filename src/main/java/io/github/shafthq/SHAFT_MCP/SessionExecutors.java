@@ -0,0 +1,165 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes the tool calls of each MCP session, so that calls from one agent never interleave on its browser,
+ * while calls from different sessions run in parallel.
+ * When {@code shaft.mcp.virtual-threads.enabled} is true, each session gets its own ordered executor backed by a
+ * virtual thread, so a call blocked on a WebDriver request does not hold a platform thread.
+ * Otherwise calls run on the caller's thread under a per-session lock.
+ */
+@Component
+public class SessionExecutors {
+    private static final Logger logger = LoggerFactory.getLogger(SessionExecutors.class);
+    private final boolean virtualThreads;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * The ordered execution lane of one session: its executor, or its lock when calls run on the caller's thread.
+     * A lane is only dropped once no call of the session is queued or running, so a later call can never run next to a
+     * call still waiting in a dropped lane.
+     */
+    private static final class Lane {
+        private final ExecutorService executor;
+        private final ReentrantLock lock;
+        private volatile int pendingCalls;
+        private boolean closing;
+
+        private Lane(String sessionId, boolean virtualThreads) {
+            this.executor = virtualThreads
+                    ? Executors.newSingleThreadExecutor(Thread.ofVirtual().name("shaft-session-" + sessionId).factory())
+                    : null;
+            this.lock = virtualThreads ? null : new ReentrantLock(true);
+        }
+
+        private void release() {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    public SessionExecutors(@Value("${shaft.mcp.virtual-threads.enabled:true}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        logger.info("Tool calls will run on {} threads, serialized per session", virtualThreads ? "virtual" : "caller");
+    }
+
+    /**
+     * Runs a task in the given session's order and waits for its result.
+     *
+     * @param sessionId The MCP session ID.
+     * @param task      The task to run.
+     * @return The result of the task.
+     * @throws Exception if the task fails.
+     */
+    <T> T call(String sessionId, Callable<T> task) throws Exception {
+        Lane lane = lanes.compute(sessionId, (id, current) -> {
+            Lane next = current != null ? current : new Lane(id, virtualThreads);
+            next.pendingCalls++;
+            return next;
+        });
+        try {
+            return virtualThreads ? submit(lane, task) : runLocked(lane, task);
+        } finally {
+            lanes.computeIfPresent(sessionId, (id, current) -> {
+                if (current != lane) {
+                    return current;
+                }
+                current.pendingCalls--;
+                if (current.pendingCalls == 0 && current.closing) {
+                    current.release();
+                    return null;
+                }
+                return current;
+            });
+        }
+    }
+
+    /**
+     * Releases the executor of a session once the session no longer owns a browser.
+     * Calls already queued for the session still run, in order, and calls made before they finish queue behind them;
+     * the executor is dropped once the last of them has finished.
+     *
+     * @param sessionId The MCP session ID.
+     */
+    void close(String sessionId) {
+        lanes.computeIfPresent(sessionId, (id, lane) -> {
+            if (lane.pendingCalls == 0) {
+                lane.release();
+                return null;
+            }
+            lane.closing = true;
+            return lane;
+        });
+    }
+
+    /**
+     * Whether a call of the session is queued or running, including background work such as a browser recycle.
+     *
+     * @param sessionId The MCP session ID.
+     * @return {@code true} if the session's lane has pending calls.
+     */
+    boolean isBusy(String sessionId) {
+        Lane lane = lanes.get(sessionId);
+        return lane != null && lane.pendingCalls > 0;
+    }
+
+    /**
+     * Retrieves the executor statistics.
+     *
+     * @return The execution mode and the number of sessions with an executor.
+     */
+    Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("virtualThreads", virtualThreads);
+        stats.put("sessions", lanes.size());
+        return stats;
+    }
+
+    private static <T> T runLocked(Lane lane, Callable<T> task) throws Exception {
+        lane.lock.lock();
+        try {
+            return task.call();
+        } finally {
+            lane.lock.unlock();
+        }
+    }
+
+    private static <T> T submit(Lane lane, Callable<T> task) throws Exception {
+        Future<T> result = lane.executor.submit(task);
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lanes.values().stream()
+                .filter(lane -> lane.executor != null)
+                .forEach(lane -> lane.executor.shutdownNow());
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A live browser session, as listed by the session report.
+ *
+ * @param sessionId        The MCP session that owns the browser.
+ * @param browserType      The type of the browser.
+ * @param launchProfile    The launch options the browser was started with.
+ * @param leanMode         Whether actions skip SHAFT's per-action reporting.
+ * @param createdAt        The time the browser was handed to the session.
+ * @param lastActivity     The time a tool call of the session last started or finished.
+ * @param ageSeconds       The seconds since the browser was handed to the session.
+ * @param idleSeconds      The seconds since the last tool call activity.
+ * @param activeCalls      The tool calls of the session that are running or waiting for their turn.
+ * @param expiresInSeconds The seconds until the reaper closes the browser if the session stays idle.
+ * @param processes        The number of browser processes, for local browsers.
+ * @param rssBytes         The resident memory of the browser processes, for local browsers.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SessionInfo(String sessionId, BrowserType browserType, LaunchProfile launchProfile, boolean leanMode,
+                          String createdAt, String lastActivity, long ageSeconds, long idleSeconds, int activeCalls,
+                          long expiresInSeconds, Integer processes, Long rssBytes) {
+}
@@ -0,0 +1,215 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Closes the browsers of sessions that are no longer used, so that agents which disconnect without calling
+ * {@code driver_quit} do not leave browsers and driver processes running.
+ * A session's browser is closed when:
+ * <ul>
+ *   <li>no tool call of the session started or finished within the idle TTL,</li>
+ *   <li>the browser is older than the maximum age, or</li>
+ *   <li>the session has been idle for one reaper interval and its MCP client no longer answers a ping.</li>
+ * </ul>
+ * Sessions with a tool call in progress are never closed. Sweeps run on the reaper's own thread, so pinging
+ * disconnected clients does not hold up the other scheduled tasks, and sessions whose calls are queued or running,
+ * including a browser recycle, are skipped until the next sweep instead of being waited for.
+ */
+@Service
+public class SessionReaper {
+    private static final Logger logger = LoggerFactory.getLogger(SessionReaper.class);
+    private static final Set<String> DRIVER_EXECUTABLES = Set.of("chromedriver", "geckodriver", "msedgedriver", "safaridriver");
+    private final EngineService engineService;
+    private final BrowserPool browserPool;
+    private final SessionExecutors sessionExecutors;
+    private final Duration idleTtl;
+    private final Duration maxAge;
+    private final Duration reaperInterval;
+    private final ExecutorService reaperExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("shaft-session-reaper").daemon(true).factory());
+    private final AtomicBoolean reaping = new AtomicBoolean();
+
+    public SessionReaper(EngineService engineService, BrowserPool browserPool, SessionExecutors sessionExecutors,
+                         @Value("${shaft.mcp.sessions.idle-ttl:PT30M}") Duration idleTtl,
+                         @Value("${shaft.mcp.sessions.max-age:PT8H}") Duration maxAge,
+                         @Value("${shaft.mcp.sessions.reaper-interval:PT1M}") Duration reaperInterval) {
+        this.engineService = engineService;
+        this.browserPool = browserPool;
+        this.sessionExecutors = sessionExecutors;
+        this.idleTtl = idleTtl;
+        this.maxAge = maxAge;
+        this.reaperInterval = reaperInterval;
+    }
+
+    /**
+     * Lists the live sessions with their age and resource use, and the driver processes of this host that belong to
+     * no session.
+     * This is a support method for operators to find browsers that were never closed.
+     * @return The session report.
+     */
+    @Tool(name = "server_list_sessions", description = "lists live browser sessions with their age, idle time, expiry and memory use, and counts driver processes that belong to no session")
+    public SessionReport listSessions() {
+        try {
+            Instant now = Instant.now();
+            List<SessionInfo> sessions = SessionRegistry.all().stream()
+                    .sorted(Comparator.comparing(BrowserSession::createdAt))
+                    .map(session -> describe(session, now))
+                    .toList();
+            int pooledBrowsers = browserPool.idleCount();
+            int localDriverProcesses = (int) ProcessHandle.current().descendants()
+                    .filter(SessionReaper::isDriverProcess)
+                    .count();
+            int unownedDriverProcesses = localDriverProcesses == 0 ? 0
+                    : Math.max(0, localDriverProcesses - sessions.size() - pooledBrowsers);
+            SessionReport report = new SessionReport(sessions, pooledBrowsers, localDriverProcesses, unownedDriverProcesses);
+            logger.info("Listed {} sessions, {} pooled browsers and {} local driver processes ({} unowned)",
+                    sessions.size(), pooledBrowsers, localDriverProcesses, unownedDriverProcesses);
+            return report;
+        } catch (Exception e) {
+            logger.error("Failed to list sessions.", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts a sweep of the sessions on the reaper's thread, unless the previous sweep is still running.
+     */
+    @Scheduled(fixedDelayString = "${shaft.mcp.sessions.reaper-interval:PT1M}", initialDelayString = "${shaft.mcp.sessions.reaper-interval:PT1M}")
+    void reap() {
+        if (!reaping.compareAndSet(false, true)) {
+            return;
+        }
+        reaperExecutor.execute(() -> {
+            try {
+                reapAll();
+            } finally {
+                reaping.set(false);
+            }
+        });
+    }
+
+    /**
+     * Closes the browsers of idle, expired and disconnected sessions.
+     */
+    void reapAll() {
+        Instant now = Instant.now();
+        for (BrowserSession session : SessionRegistry.all()) {
+            if (session.activeCalls() > 0 || sessionExecutors.isBusy(session.sessionId())) {
+                continue;
+            }
+            String reason = expiryReason(session, now);
+            if (reason == null && session.lastActivity().plus(reaperInterval).isBefore(now) && !isConnected(session)) {
+                reason = "its MCP client disconnected";
+            }
+            if (reason != null) {
+                close(session, reason);
+            }
+        }
+    }
+
+    /**
+     * Closes the browsers still owned by sessions when the server shuts down.
+     */
+    @PreDestroy
+    void closeAll() {
+        reaperExecutor.shutdownNow();
+        for (BrowserSession session : SessionRegistry.all()) {
+            SessionRegistry.remove(session.sessionId());
+            try {
+                session.networkBlocker().close();
+                session.driver().quit();
+                logger.info("Closed the browser of session {} on shutdown", session.sessionId());
+            } catch (RuntimeException e) {
+                logger.debug("Failed to close the browser of session {} on shutdown", session.sessionId(), e);
+            }
+        }
+    }
+
+    private String expiryReason(BrowserSession session, Instant now) {
+        if (session.createdAt().plus(maxAge).isBefore(now)) {
+            return "it is older than " + maxAge;
+        }
+        if (session.lastActivity().plus(idleTtl).isBefore(now)) {
+            return "it was idle for more than " + idleTtl;
+        }
+        return null;
+    }
+
+    /**
+     * Pings the MCP client of a session. Sessions that never made a call through an MCP exchange count as connected.
+     */
+    private static boolean isConnected(BrowserSession session) {
+        McpSyncServerExchange exchange = session.exchange();
+        if (exchange == null) {
+            return true;
+        }
+        try {
+            exchange.ping();
+            return true;
+        } catch (RuntimeException e) {
+            logger.debug("Ping of session {} failed", session.sessionId(), e);
+            return false;
+        }
+    }
+
+    private void close(BrowserSession session, String reason) {
+        String sessionId = session.sessionId();
+        Instant checkedActivity = session.lastActivity();
+        try {
+            sessionExecutors.call(sessionId, () -> SessionContext.callWithin(sessionId, () -> {
+                // the session may have made a call or launched another browser since it was found expired; without
+                // new activity it is still expired or disconnected, so its client is not pinged again
+                if (SessionRegistry.get(sessionId).orElse(null) == session && session.activeCalls() == 0
+                        && session.lastActivity().equals(checkedActivity)) {
+                    logger.warn("Closing the {} browser of session {} because {}", session.browserType(), sessionId, reason);
+                    engineService.quitDriver();
+                }
+                return null;
+            }));
+        } catch (Exception e) {
+            logger.warn("Failed to close the browser of session {}", sessionId, e);
+        }
+        if (SessionRegistry.get(sessionId).isEmpty()) {
+            sessionExecutors.close(sessionId);
+        }
+    }
+
+    private SessionInfo describe(BrowserSession session, Instant now) {
+        Instant idleExpiry = session.lastActivity().plus(idleTtl);
+        Instant ageExpiry = session.createdAt().plus(maxAge);
+        Instant expiry = idleExpiry.isBefore(ageExpiry) ? idleExpiry : ageExpiry;
+        BrowserMemory.Usage usage = BrowserMemory.measure(session.driver().getDriver()).orElse(null);
+        return new SessionInfo(session.sessionId(), session.browserType(), session.launchProfile(), session.leanMode(),
+                session.createdAt().toString(), session.lastActivity().toString(),
+                Duration.between(session.createdAt(), now).toSeconds(),
+                Duration.between(session.lastActivity(), now).toSeconds(),
+                session.activeCalls(),
+                Math.max(0, Duration.between(now, expiry).toSeconds()),
+                usage == null ? null : usage.processes(),
+                usage == null ? null : usage.rssBytes());
+    }
+
+    private static boolean isDriverProcess(ProcessHandle process) {
+        return process.info().command()
+                .map(command -> Path.of(command).getFileName().toString().replaceFirst("\\.exe$", ""))
+                .map(DRIVER_EXECUTABLES::contains)
+                .orElse(false);
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent registry of the browser sessions served by this process, keyed by MCP session ID.
+ * Each agent connected over the HTTP/SSE transport gets its own entry, so tools invoked by
+ * different agents never share a browser.
+ */
+final class SessionRegistry {
+    private static final Map<String, BrowserSession> sessions = new ConcurrentHashMap<>();
+
+    private SessionRegistry() {
+    }
+
+    /**
+     * Retrieves the browser session registered for the given session ID.
+     *
+     * @param sessionId The MCP session ID.
+     * @return The browser session, if one is registered.
+     */
+    static Optional<BrowserSession> get(String sessionId) {
+        return Optional.ofNullable(sessions.get(sessionId));
+    }
+
+    /**
+     * Registers a browser session, replacing any session previously registered under the same ID.
+     *
+     * @param session The browser session to register.
+     * @return The replaced browser session, if any.
+     */
+    static Optional<BrowserSession> register(BrowserSession session) {
+        return Optional.ofNullable(sessions.put(session.sessionId(), session));
+    }
+
+    /**
+     * Removes the browser session registered for the given session ID.
+     *
+     * @param sessionId The MCP session ID.
+     * @return The removed browser session, if one was registered.
+     */
+    static Optional<BrowserSession> remove(String sessionId) {
+        return Optional.ofNullable(sessions.remove(sessionId));
+    }
+
+    /**
+     * Retrieves a snapshot of all registered browser sessions.
+     *
+     * @return An immutable copy of the registered sessions.
+     */
+    static Collection<BrowserSession> all() {
+        return List.copyOf(sessions.values());
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * The live browser sessions of the server and the WebDriver processes running on its host.
+ * Every local browser, whether owned by a session or waiting in the pool, has one driver process, so more driver
+ * processes than that points to browsers that were never closed.
+ *
+ * @param sessions               The live sessions, oldest first.
+ * @param pooledBrowsers         The pre-launched browsers waiting in the pool.
+ * @param localDriverProcesses   The chromedriver, geckodriver, msedgedriver and safaridriver processes started by
+ *                               this server.
+ * @param unownedDriverProcesses The driver processes that belong to neither a session nor the pool. Browsers being
+ *                               launched at the time of the report are counted here too.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SessionReport(List<SessionInfo> sessions, int pooledBrowsers, int localDriverProcesses,
+                            int unownedDriverProcesses) {
+}
@@ -0,0 +1,180 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.shaft.driver.SHAFT;
+import org.openqa.selenium.By;
+
+/**
+ * Performs actions through the SHAFT Engine, which records an Allure step, logs and screenshots for each of them.
+ */
+final class ShaftBrowserActions implements BrowserActions {
+    private final SHAFT.GUI.WebDriver driver;
+
+    ShaftBrowserActions(SHAFT.GUI.WebDriver driver) {
+        this.driver = driver;
+    }
+
+    @Override
+    public void hover(By locator) {
+        driver.element().hover(locator);
+    }
+
+    @Override
+    public void click(By locator) {
+        driver.element().click(locator);
+    }
+
+    @Override
+    public void clickUsingJavascript(By locator) {
+        driver.element().clickUsingJavascript(locator);
+    }
+
+    @Override
+    public void doubleClick(By locator) {
+        driver.element().doubleClick(locator);
+    }
+
+    @Override
+    public void clickAndHold(By locator) {
+        driver.element().clickAndHold(locator);
+    }
+
+    @Override
+    public void type(By locator, CharSequence... text) {
+        driver.element().type(locator, text);
+    }
+
+    @Override
+    public void typeAppend(By locator, CharSequence... text) {
+        driver.element().typeAppend(locator, text);
+    }
+
+    @Override
+    public void setValueUsingJavaScript(By locator, String value) {
+        driver.element().setValueUsingJavaScript(locator, value);
+    }
+
+    @Override
+    public void clear(By locator) {
+        driver.element().clear(locator);
+    }
+
+    @Override
+    public void dropFileToUpload(By locator, String filePath) {
+        driver.element().dropFileToUpload(locator, filePath);
+    }
+
+    @Override
+    public void dragAndDrop(By sourceLocator, By targetLocator) {
+        driver.element().dragAndDrop(sourceLocator, targetLocator);
+    }
+
+    @Override
+    public void dragAndDropByOffset(By locator, int xOffset, int yOffset) {
+        driver.element().dragAndDropByOffset(locator, xOffset, yOffset);
+    }
+
+    @Override
+    public String getText(By locator) {
+        return driver.element().get().text(locator);
+    }
+
+    @Override
+    public String getDomAttribute(By locator, String name) {
+        return driver.element().get().domAttribute(locator, name);
+    }
+
+    @Override
+    public String getDomProperty(By locator, String name) {
+        return driver.element().get().domProperty(locator, name);
+    }
+
+    @Override
+    public String getCssValue(By locator, String name) {
+        return driver.element().get().cssValue(locator, name);
+    }
+
+    @Override
+    public boolean isDisplayed(By locator) {
+        return driver.element().get().isDisplayed(locator);
+    }
+
+    @Override
+    public boolean isEnabled(By locator) {
+        return driver.element().get().isEnabled(locator);
+    }
+
+    @Override
+    public boolean isSelected(By locator) {
+        return driver.element().get().isSelected(locator);
+    }
+
+    @Override
+    public void navigateToURL(String url) {
+        driver.browser().navigateToURL(url);
+    }
+
+    @Override
+    public void refreshCurrentPage() {
+        driver.browser().refreshCurrentPage();
+    }
+
+    @Override
+    public void navigateBack() {
+        driver.browser().navigateBack();
+    }
+
+    @Override
+    public void navigateForward() {
+        driver.browser().navigateForward();
+    }
+
+    @Override
+    public void maximizeWindow() {
+        driver.browser().maximizeWindow();
+    }
+
+    @Override
+    public void setWindowSize(int width, int height) {
+        driver.browser().setWindowSize(width, height);
+    }
+
+    @Override
+    public void fullScreenWindow() {
+        driver.browser().fullScreenWindow();
+    }
+
+    @Override
+    public void deleteAllCookies() {
+        driver.browser().deleteAllCookies();
+    }
+
+    @Override
+    public void deleteCookie(String name) {
+        driver.browser().deleteCookie(name);
+    }
+
+    @Override
+    public void addCookie(String name, String value) {
+        driver.browser().addCookie(name, value);
+    }
+
+    @Override
+    public String getCookieValue(String name) {
+        return driver.browser().getCookie(name).getValue();
+    }
+
+    @Override
+    public String getAllCookies() {
+        return driver.browser().getAllCookies().toString();
+    }
+
+    @Override
+    public String getCurrentURL() {
+        return driver.browser().getCurrentURL();
+    }
+
+    @Override
+    public String getCurrentWindowTitle() {
+        return driver.browser().getCurrentWindowTitle();
+    }
+}
@@ -1,16 +1,27 @@
 package io.github.shafthq.SHAFT_MCP;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.modelcontextprotocol.server.McpServerFeatures;
 import org.springframework.ai.support.ToolCallbacks;
 import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @SpringBootApplication
+@EnableScheduling
 public class ShaftMcpApplication {
+    /**
+     * Tools returning a {@link TextPage}, whose text can reach the payload budget; they are registered by {@link #textTools}.
+     */
+    static final Set<String> LARGE_TEXT_TOOLS = Set.of("browser_get_page_source", "element_get_text", "browser_get_all_cookies");
 
     /**
      * The main entry point for the ShaftMcpApplication.
@@ -22,19 +33,74 @@ public class ShaftMcpApplication {
 
     /**
      * Registers the ShaftService tool callbacks.
+     * Each callback is bound to the calling MCP session so that every agent drives its own browser,
+     * and calls of one session are serialized while different sessions run in parallel.
+     * Every call is timed and its response size recorded.
      * @param engineService the ShaftService instance
      * @return a list of ToolCallback instances
      */
 	@Bean
-	public List<ToolCallback> shaftTools(EngineService engineService, BrowserService browserService, ElementService elementService) {
+	public List<ToolCallback> shaftTools(EngineService engineService, BrowserService browserService, ElementService elementService,
+                                         BatchService batchService, StorageStateService storageStateService,
+                                         SessionReaper sessionReaper,
+                                         SessionExecutors sessionExecutors,
+                                         MeterRegistry meterRegistry) {
         var engineServiceList = List.of(ToolCallbacks.from(engineService));
         var browserServiceList = List.of(ToolCallbacks.from(browserService));
         var elementServiceList = List.of(ToolCallbacks.from(elementService));
+        var batchServiceList = List.of(ToolCallbacks.from(batchService));
+        var storageStateServiceList = List.of(ToolCallbacks.from(storageStateService));
+        var sessionReaperList = List.of(ToolCallbacks.from(sessionReaper));
 
         var serviceList = new java.util.ArrayList<ToolCallback>();
         serviceList.addAll(engineServiceList);
         serviceList.addAll(browserServiceList);
         serviceList.addAll(elementServiceList);
-        return serviceList;
+        serviceList.addAll(batchServiceList);
+        serviceList.addAll(storageStateServiceList);
+        serviceList.addAll(sessionReaperList);
+        return serviceList.stream()
+                .filter(toolCallback -> !LARGE_TEXT_TOOLS.contains(toolCallback.getToolDefinition().name()))
+                .map(toolCallback -> decorate(toolCallback, sessionExecutors, meterRegistry))
+                .toList();
 	}
+
+    /**
+     * Registers the tools returning large text, which return their text unquoted and split into MCP text content blocks,
+     * followed by the page metadata.
+     * They are bound to the calling MCP session and metered like every other tool.
+     * @param chunkChars the maximum number of characters per text block
+     * @return a list of MCP tool specifications
+     */
+    @Bean
+    public List<McpServerFeatures.SyncToolSpecification> textTools(EngineService engineService, BrowserService browserService,
+                                                                  ElementService elementService, SessionExecutors sessionExecutors,
+                                                                  MeterRegistry meterRegistry,
+                                                                  @Value("${shaft.mcp.transport.text-chunk-chars:65536}") int chunkChars) {
+        return Stream.of(ToolCallbacks.from(engineService, browserService, elementService))
+                .filter(toolCallback -> LARGE_TEXT_TOOLS.contains(toolCallback.getToolDefinition().name()))
+                .map(toolCallback -> decorate(toolCallback, sessionExecutors, meterRegistry))
+                .map(toolCallback -> TextToolSpecifications.from(toolCallback, chunkChars))
+                .toList();
+    }
+
+    /**
+     * Registers the screenshot tools, which return inlined images as MCP image content blocks.
+     * They are bound to the calling MCP session and metered like every other tool.
+     * @param screenshotService the ScreenshotService instance
+     * @return a list of MCP tool specifications
+     */
+    @Bean
+    public List<McpServerFeatures.SyncToolSpecification> screenshotTools(ScreenshotService screenshotService,
+                                                                        SessionExecutors sessionExecutors,
+                                                                        MeterRegistry meterRegistry) {
+        return Stream.of(ToolCallbacks.from(screenshotService))
+                .map(toolCallback -> decorate(toolCallback, sessionExecutors, meterRegistry))
+                .map(ImageToolSpecifications::from)
+                .toList();
+    }
+
+    private static ToolCallback decorate(ToolCallback toolCallback, SessionExecutors sessionExecutors, MeterRegistry meterRegistry) {
+        return new SessionAwareToolCallback(new MeteredToolCallback(toolCallback, meterRegistry), sessionExecutors);
+    }
 }
@@ -0,0 +1,34 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot of the authenticated state of a browser: its cookies and the localStorage and sessionStorage of the
+ * page it was taken on.
+ *
+ * @param version        The snapshot format version, see {@link #CURRENT_VERSION}.
+ * @param savedAt        When the snapshot was taken, as an ISO-8601 instant.
+ * @param url            The page the snapshot was taken on, restored last.
+ * @param origin         The origin the storage entries belong to.
+ * @param cookies        The cookies of every domain when the browser exposes them, otherwise of the current domain.
+ * @param localStorage   The localStorage entries of the origin.
+ * @param sessionStorage The sessionStorage entries of the origin.
+ */
+public record StorageState(int version, String savedAt, String url, String origin, List<StoredCookie> cookies,
+                           Map<String, String> localStorage, Map<String, String> sessionStorage) {
+    static final int CURRENT_VERSION = 1;
+
+    /**
+     * A cookie of a {@link StorageState}.
+     *
+     * @param expiry The expiry in seconds since the epoch, absent for session cookies.
+     * @param sameSite {@code Strict}, {@code Lax} or {@code None}, absent when the browser did not report it.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record StoredCookie(String name, String value, String domain, String path, Long expiry, boolean secure,
+                               boolean httpOnly, String sameSite) {
+    }
+}
@@ -0,0 +1,425 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.ai.util.json.JsonParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.shafthq.SHAFT_MCP.EngineService.getDriver;
+
+/**
+ * Saves and restores the authenticated state of a browser, so that agents can skip repeated login flows.
+ * Snapshots are kept in a bounded in-memory store, or in JSON files under the storage state directory.
+ * Named snapshots belong to the MCP session that saved them, unless the shared namespace is enabled, so one agent
+ * cannot restore another agent's login. Each session keeps its most recently used snapshots up to a per-session limit,
+ * so a busy agent only evicts its own snapshots; the snapshots of the least recently used sessions are dropped once
+ * more than {@value #MAX_STORED_SESSIONS} sessions have saved some. Files are readable by the server's user only, and are encrypted with AES-GCM
+ * when an encryption key is configured.
+ */
+@Service
+public class StorageStateService {
+    private static final Logger logger = LoggerFactory.getLogger(StorageStateService.class);
+    private static final int MAX_STORED_SESSIONS = 256;
+    private static final String ENCRYPTED_PREFIX = "shaft-mcp-aes-gcm:";
+    private static final int GCM_IV_BYTES = 12;
+    private static final int GCM_TAG_BITS = 128;
+    private static final SecureRandom random = new SecureRandom();
+    private static final String EXPORT_SCRIPT = """
+            return {
+                url: location.href,
+                origin: location.origin,
+                localStorage: Object.fromEntries(Object.entries(localStorage)),
+                sessionStorage: Object.fromEntries(Object.entries(sessionStorage))
+            };
+            """;
+    private static final String IMPORT_SCRIPT = """
+            const state = %s;
+            if (location.origin === state.origin) {
+                localStorage.clear();
+                sessionStorage.clear();
+                Object.entries(state.localStorage).forEach(([key, value]) => localStorage.setItem(key, value));
+                Object.entries(state.sessionStorage).forEach(([key, value]) => sessionStorage.setItem(key, value));
+            }
+            """;
+    private final Map<String, Map<String, StorageState>> storedStates = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Map<String, StorageState>> eldest) {
+            if (size() <= MAX_STORED_SESSIONS) {
+                return false;
+            }
+            logger.warn("Dropped the {} storage states of session {}, the least recently used of {} sessions",
+                    eldest.getValue().size(), eldest.getKey(), MAX_STORED_SESSIONS);
+            return true;
+        }
+    };
+    private final Path directory;
+    private final boolean shared;
+    private final SecretKeySpec encryptionKey;
+    private final int maxStatesPerSession;
+
+    public StorageStateService(@Value("${shaft.mcp.storage-state.directory:storage-states}") String directory,
+                               @Value("${shaft.mcp.storage-state.shared:false}") boolean shared,
+                               @Value("${shaft.mcp.storage-state.encryption-key:}") String encryptionKey,
+                               @Value("${shaft.mcp.storage-state.max-per-session:8}") int maxStatesPerSession) {
+        this.directory = Path.of(directory).toAbsolutePath().normalize();
+        this.shared = shared;
+        this.maxStatesPerSession = Math.max(1, maxStatesPerSession);
+        if (encryptionKey == null || encryptionKey.isBlank()) {
+            this.encryptionKey = null;
+        } else {
+            byte[] key = Base64.getDecoder().decode(encryptionKey.trim());
+            if (key.length != 16 && key.length != 24 && key.length != 32) {
+                throw new IllegalArgumentException("shaft.mcp.storage-state.encryption-key must be a base64 AES key of 16, 24 or 32 bytes");
+            }
+            this.encryptionKey = new SecretKeySpec(key, "AES");
+        }
+    }
+
+    /**
+     * Saves the cookies and the localStorage and sessionStorage of the current page.
+     *
+     * @param name     The name to keep the snapshot under in the session's in-memory store.
+     * @param filePath The JSON file to also write the snapshot to, relative to the storage state directory.
+     * @return A description of the snapshot, without cookie or storage values.
+     */
+    @Tool(name = "browser_save_storage_state", description = "saves cookies, localStorage and sessionStorage of the current page as a named snapshot of this session, optionally to a file, so later browsers can skip logging in")
+    public StorageStateSummary saveStorageState(@ToolParam(description = "name of the snapshot") String name,
+                                                @ToolParam(required = false, description = "JSON file to also write the snapshot to, relative to the server's storage state directory") String filePath) {
+        try {
+            StorageState state = captureCurrent();
+            store(name, state);
+            String path = null;
+            if (filePath != null && !filePath.isBlank()) {
+                Path file = resolve(filePath);
+                write(file, JsonParser.toJson(state));
+                path = directory.relativize(file).toString();
+            }
+            StorageStateSummary summary = StorageStateSummary.of(name, path, state, null);
+            logger.info("Saved storage state '{}' with {} cookies from {}", name, summary.cookies(), state.origin());
+            return summary;
+        } catch (IOException e) {
+            logger.error("Failed to write storage state '{}' to {}", name, filePath, e);
+            throw new UncheckedIOException(e);
+        } catch (Exception e) {
+            logger.error("Failed to save storage state '{}'.", name, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Restores a snapshot to the current browser, replacing its cookies and storage, and opens the page the snapshot
+     * was taken on.
+     *
+     * @param name     The name of a snapshot in the session's in-memory store.
+     * @param filePath The JSON file to read the snapshot from, relative to the storage state directory, used when no
+     *                 name is given.
+     * @return A description of the restored snapshot, without cookie or storage values.
+     */
+    @Tool(name = "browser_restore_storage_state", description = "restores a snapshot saved by browser_save_storage_state, by name or file, and opens the page it was saved on")
+    public StorageStateSummary restoreStorageState(@ToolParam(required = false, description = "name of a saved snapshot") String name,
+                                                   @ToolParam(required = false, description = "JSON file to read the snapshot from, relative to the server's storage state directory, when no name is given") String filePath) {
+        try {
+            StorageState state = load(name, filePath);
+            int skippedCookies = restoreCurrent(state);
+            boolean byName = name != null && !name.isBlank();
+            StorageStateSummary summary = StorageStateSummary.of(byName ? name : null, byName ? null : filePath, state,
+                    skippedCookies > 0 ? skippedCookies : null);
+            logger.info("Restored storage state '{}' with {} cookies to {}", name != null ? name : filePath, summary.cookies(), state.url());
+            return summary;
+        } catch (Exception e) {
+            logger.error("Failed to restore storage state '{}'.", name != null ? name : filePath, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Captures the state of the current session's browser without keeping it in the store.
+     *
+     * @return The captured state.
+     */
+    StorageState captureCurrent() {
+        return capture(getDriver().getDriver());
+    }
+
+    /**
+     * Restores a state to the current session's browser and opens the page it was captured on.
+     *
+     * @param state The state to restore.
+     * @return The number of cookies that could not be restored.
+     */
+    int restoreCurrent(StorageState state) {
+        WebDriver driver = getDriver().getDriver();
+        return driver instanceof HasCdp cdp ? restoreWithCdp(cdp, driver, state) : restore(driver, state);
+    }
+
+    private StorageState load(String name, String filePath) {
+        if (name != null && !name.isBlank()) {
+            return stored(name);
+        }
+        if (filePath == null || filePath.isBlank()) {
+            throw new IllegalArgumentException("Either a storage state name or a file path is required");
+        }
+        StorageState state;
+        try {
+            state = JsonParser.fromJson(read(resolve(filePath)), StorageState.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read storage state file " + filePath, e);
+        }
+        if (state.version() > StorageState.CURRENT_VERSION) {
+            throw new IllegalArgumentException("Unsupported storage state version " + state.version()
+                    + ", this server reads up to version " + StorageState.CURRENT_VERSION);
+        }
+        return state;
+    }
+
+    /**
+     * Keeps a snapshot in the current session's store, evicting the session's least recently used snapshot once it
+     * holds more than the per-session limit.
+     *
+     * @param name  The name of the snapshot.
+     * @param state The snapshot.
+     */
+    synchronized void store(String name, StorageState state) {
+        String namespace = namespace();
+        Map<String, StorageState> states = storedStates.computeIfAbsent(namespace, key -> new LinkedHashMap<>(16, 0.75f, true));
+        states.put(name, state);
+        if (states.size() > maxStatesPerSession) {
+            Iterator<String> eldest = states.keySet().iterator();
+            String evicted = eldest.next();
+            eldest.remove();
+            logger.warn("Evicted storage state '{}' of session {}, which keeps at most {} snapshots", evicted, namespace, maxStatesPerSession);
+        }
+    }
+
+    /**
+     * Retrieves a snapshot from the current session's store.
+     *
+     * @param name The name of the snapshot.
+     * @return The snapshot.
+     * @throws IllegalArgumentException if the session has no snapshot of that name.
+     */
+    synchronized StorageState stored(String name) {
+        Map<String, StorageState> states = storedStates.get(namespace());
+        StorageState state = states == null ? null : states.get(name);
+        if (state == null) {
+            throw new IllegalArgumentException("Storage state not found: '" + name + "'. It was never saved"
+                    + (shared ? "" : " by this session") + ", or it was evicted because only the " + maxStatesPerSession
+                    + " most recently used snapshots are kept; save it to a file to keep it longer");
+        }
+        return state;
+    }
+
+    /**
+     * The store of the current MCP session, or the shared store if snapshots are shared between sessions.
+     */
+    private String namespace() {
+        return shared ? "shared" : SessionContext.currentSessionId();
+    }
+
+    /**
+     * Resolves a snapshot file under the storage state directory.
+     *
+     * @throws IllegalArgumentException if the path is absolute or leaves the directory.
+     */
+    Path resolve(String filePath) {
+        Path relative = Path.of(filePath);
+        if (relative.isAbsolute() || relative.getRoot() != null) {
+            throw new IllegalArgumentException("Storage state files must be relative to the storage state directory: " + filePath);
+        }
+        for (Path part : relative) {
+            if (part.toString().equals("..")) {
+                throw new IllegalArgumentException("Storage state file paths must not contain '..': " + filePath);
+            }
+        }
+        Path file = directory.resolve(relative).normalize();
+        if (!file.startsWith(directory) || file.equals(directory)) {
+            throw new IllegalArgumentException("Storage state file is outside the storage state directory: " + filePath);
+        }
+        return file;
+    }
+
+    private void write(Path file, String json) throws IOException {
+        Files.createDirectories(file.getParent());
+        String content = encryptionKey == null ? json : encrypt(json);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.deleteIfExists(file);
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        }
+        Files.writeString(file, content);
+    }
+
+    private String read(Path file) throws IOException {
+        String content = Files.readString(file);
+        if (!content.startsWith(ENCRYPTED_PREFIX)) {
+            return content;
+        }
+        if (encryptionKey == null) {
+            throw new IllegalArgumentException("Storage state file is encrypted but no shaft.mcp.storage-state.encryption-key is configured");
+        }
+        return decrypt(content.substring(ENCRYPTED_PREFIX.length()));
+    }
+
+    private String encrypt(String json) {
+        try {
+            byte[] iv = new byte[GCM_IV_BYTES];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+            byte[] encrypted = cipher.doFinal(json.getBytes(StandardCharsets.UTF_8));
+            byte[] sealed = Arrays.copyOf(iv, iv.length + encrypted.length);
+            System.arraycopy(encrypted, 0, sealed, iv.length, encrypted.length);
+            return ENCRYPTED_PREFIX + Base64.getEncoder().encodeToString(sealed);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt storage state", e);
+        }
+    }
+
+    private String decrypt(String sealed) {
+        try {
+            byte[] bytes = Base64.getDecoder().decode(sealed.trim());
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(GCM_TAG_BITS, bytes, 0, GCM_IV_BYTES));
+            return new String(cipher.doFinal(bytes, GCM_IV_BYTES, bytes.length - GCM_IV_BYTES), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Storage state file could not be decrypted with the configured key", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StorageState capture(WebDriver driver) {
+        Map<String, Object> page = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(EXPORT_SCRIPT);
+        List<StorageState.StoredCookie> cookies = new ArrayList<>();
+        if (driver instanceof HasCdp cdp) {
+            // DevTools returns the cookies of every domain, not only those visible to the current page
+            List<Map<String, Object>> allCookies = (List<Map<String, Object>>) cdp.executeCdpCommand("Network.getAllCookies", Map.of()).get("cookies");
+            for (Map<String, Object> cookie : allCookies) {
+                boolean session = Boolean.TRUE.equals(cookie.get("session"));
+                cookies.add(new StorageState.StoredCookie((String) cookie.get("name"), (String) cookie.get("value"),
+                        (String) cookie.get("domain"), (String) cookie.get("path"),
+                        session ? null : ((Number) cookie.get("expires")).longValue(),
+                        Boolean.TRUE.equals(cookie.get("secure")), Boolean.TRUE.equals(cookie.get("httpOnly")),
+                        (String) cookie.get("sameSite")));
+            }
+        } else {
+            for (Cookie cookie : driver.manage().getCookies()) {
+                cookies.add(new StorageState.StoredCookie(cookie.getName(), cookie.getValue(), cookie.getDomain(), cookie.getPath(),
+                        cookie.getExpiry() == null ? null : cookie.getExpiry().toInstant().getEpochSecond(),
+                        cookie.isSecure(), cookie.isHttpOnly(), cookie.getSameSite()));
+            }
+        }
+        return new StorageState(StorageState.CURRENT_VERSION, Instant.now().toString(), (String) page.get("url"),
+                (String) page.get("origin"), cookies, (Map<String, String>) page.get("localStorage"),
+                (Map<String, String>) page.get("sessionStorage"));
+    }
+
+    /**
+     * Sets every cookie at once and seeds the storage before the page's own scripts run, so the saved page is loaded
+     * only once and already sees the restored state.
+     */
+    private static int restoreWithCdp(HasCdp cdp, WebDriver driver, StorageState state) {
+        List<Map<String, Object>> cookies = new ArrayList<>(state.cookies().size());
+        for (StorageState.StoredCookie cookie : state.cookies()) {
+            Map<String, Object> parameters = new LinkedHashMap<>();
+            parameters.put("name", cookie.name());
+            parameters.put("value", cookie.value());
+            parameters.put("domain", cookie.domain());
+            parameters.put("path", cookie.path());
+            parameters.put("secure", cookie.secure());
+            parameters.put("httpOnly", cookie.httpOnly());
+            if (cookie.expiry() != null) {
+                parameters.put("expires", cookie.expiry());
+            }
+            if (cookie.sameSite() != null) {
+                parameters.put("sameSite", cookie.sameSite());
+            }
+            cookies.add(parameters);
+        }
+        cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+        cdp.executeCdpCommand("Network.setCookies", Map.of("cookies", cookies));
+
+        String identifier = (String) cdp.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                Map.of("source", importScript(state))).get("identifier");
+        try {
+            driver.navigate().to(state.url());
+        } finally {
+            cdp.executeCdpCommand("Page.removeScriptToEvaluateOnNewDocument", Map.of("identifier", identifier));
+        }
+        return 0;
+    }
+
+    /**
+     * Opens the saved page, replaces the cookies of its domain and its storage, then reloads it.
+     * Cookies of other domains cannot be set through WebDriver and are skipped.
+     */
+    private static int restore(WebDriver driver, StorageState state) {
+        driver.navigate().to(state.url());
+        driver.manage().deleteAllCookies();
+        String host = URI.create(state.url()).getHost();
+        int skipped = 0;
+        for (StorageState.StoredCookie cookie : state.cookies()) {
+            if (!matchesDomain(host, cookie.domain())) {
+                skipped++;
+                continue;
+            }
+            Cookie.Builder builder = new Cookie.Builder(cookie.name(), cookie.value())
+                    .domain(cookie.domain())
+                    .path(cookie.path())
+                    .isSecure(cookie.secure())
+                    .isHttpOnly(cookie.httpOnly())
+                    .sameSite(cookie.sameSite());
+            if (cookie.expiry() != null) {
+                builder.expiresOn(Date.from(Instant.ofEpochSecond(cookie.expiry())));
+            }
+            driver.manage().addCookie(builder.build());
+        }
+        ((JavascriptExecutor) driver).executeScript(importScript(state));
+        driver.navigate().refresh();
+        return skipped;
+    }
+
+    private static boolean matchesDomain(String host, String cookieDomain) {
+        if (host == null || cookieDomain == null) {
+            return true;
+        }
+        String domain = cookieDomain.startsWith(".") ? cookieDomain.substring(1) : cookieDomain;
+        return host.equals(domain) || host.endsWith("." + domain);
+    }
+
+    private static String importScript(StorageState state) {
+        Map<String, Object> storage = new LinkedHashMap<>();
+        storage.put("origin", state.origin());
+        storage.put("localStorage", state.localStorage());
+        storage.put("sessionStorage", state.sessionStorage());
+        return IMPORT_SCRIPT.formatted(JsonParser.toJson(storage));
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Describes a saved or restored {@link StorageState} without exposing cookie or storage values.
+ *
+ * @param name                The name of the snapshot in the in-memory store, absent for file-only snapshots.
+ * @param path                The absolute path of the snapshot file, absent for in-memory snapshots.
+ * @param version             The snapshot format version.
+ * @param savedAt             When the snapshot was taken.
+ * @param url                 The page the snapshot was taken on.
+ * @param cookies             The number of cookies in the snapshot.
+ * @param localStorageItems   The number of localStorage entries in the snapshot.
+ * @param sessionStorageItems The number of sessionStorage entries in the snapshot.
+ * @param skippedCookies      The cookies that could not be restored because they belong to another domain.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StorageStateSummary(String name, String path, int version, String savedAt, String url, int cookies,
+                                  int localStorageItems, int sessionStorageItems, Integer skippedCookies) {
+
+    static StorageStateSummary of(String name, String path, StorageState state, Integer skippedCookies) {
+        return new StorageStateSummary(name, path, state.version(), state.savedAt(), state.url(), state.cookies().size(),
+                state.localStorage().size(), state.sessionStorage().size(), skippedCookies);
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One page of a text result that may be larger than the payload budget.
+ * Offsets and sizes are in UTF-8 bytes, and pages never split a character.
+ *
+ * @param text       The text of this page, absent in the metadata block sent next to the text.
+ * @param offset     The offset of this page in the full text.
+ * @param totalBytes The size of the full text.
+ * @param nextCursor The cursor to pass to the same tool for the next page, absent on the last page.
+ * @param truncated  True when the full text was too large to keep for paging, so no further pages can be requested.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TextPage(String text, long offset, long totalBytes, String nextCursor, Boolean truncated) {
+
+    /**
+     * @return This page without its text, to describe it next to the text.
+     */
+    TextPage withoutText() {
+        return new TextPage(null, offset, totalBytes, nextCursor, truncated);
+    }
+}
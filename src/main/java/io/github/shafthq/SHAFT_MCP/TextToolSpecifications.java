@@ -0,0 +1,62 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.util.json.JsonParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registers tools returning a {@link TextPage}, such as page sources, so that the text reaches the client as plain MCP
+ * text content split into blocks of a bounded size, followed by the page metadata as a text block, instead of one JSON
+ * string literal inside a text block.
+ * Sending the text unquoted avoids escaping every quote and backslash of the page twice, once for the string literal
+ * and once for the JSON-RPC message, and lets clients process the blocks one by one.
+ */
+final class TextToolSpecifications {
+
+    private TextToolSpecifications() {
+    }
+
+    /**
+     * @param toolCallback A tool callback whose result is a {@link TextPage}.
+     * @param chunkChars   The maximum number of characters per text block.
+     * @return The MCP tool specification of the callback.
+     */
+    static McpServerFeatures.SyncToolSpecification from(ToolCallback toolCallback, int chunkChars) {
+        McpServerFeatures.SyncToolSpecification specification = McpToolUtils.toSyncToolSpecification(toolCallback);
+        return McpServerFeatures.SyncToolSpecification.builder()
+                .tool(specification.tool())
+                .callHandler((exchange, request) -> toTextResult(specification.callHandler().apply(exchange, request), chunkChars))
+                .build();
+    }
+
+    static McpSchema.CallToolResult toTextResult(McpSchema.CallToolResult result, int chunkChars) {
+        if (Boolean.TRUE.equals(result.isError()) || result.content().size() != 1
+                || !(result.content().getFirst() instanceof McpSchema.TextContent text)
+                || text.text() == null || !text.text().startsWith("{")) {
+            return result;
+        }
+        TextPage page = JsonParser.fromJson(text.text(), TextPage.class);
+        String value = page.text() == null ? "" : page.text();
+        List<McpSchema.Content> chunks = new ArrayList<>(value.length() / chunkChars + 2);
+        int start = 0;
+        do {
+            int end = Math.min(value.length(), start + chunkChars);
+            if (end < value.length() && Character.isHighSurrogate(value.charAt(end - 1))) {
+                // keep surrogate pairs in one block
+                end--;
+            }
+            chunks.add(new McpSchema.TextContent(value.substring(start, end)));
+            start = end;
+        } while (start < value.length());
+        chunks.add(new McpSchema.TextContent(JsonParser.toJson(page.withoutText())));
+        return McpSchema.CallToolResult.builder()
+                .content(chunks)
+                .isError(false)
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnNotWebApplication;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically logs a per-tool latency summary in STDIO mode, where no metrics endpoint is exposed.
+ * STDIO mode disables console logging, so the summary is only logged when a log file is configured with
+ * {@code logging.file.name}; otherwise it is available through {@code server_get_stats} only.
+ */
+@Component
+@ConditionalOnNotWebApplication
+public class ToolMetricsLogReporter {
+    private static final Logger logger = LoggerFactory.getLogger(ToolMetricsLogReporter.class);
+    private final ToolMetricsSummary toolMetricsSummary;
+    private final boolean logFileConfigured;
+
+    public ToolMetricsLogReporter(ToolMetricsSummary toolMetricsSummary,
+                                  @Value("${logging.file.name:}") String logFileName) {
+        this.toolMetricsSummary = toolMetricsSummary;
+        this.logFileConfigured = !logFileName.isBlank();
+    }
+
+    /**
+     * Logs count, mean, p99 and max latency of every tool that has been called, slowest p99 first.
+     */
+    @Scheduled(fixedRateString = "${shaft.mcp.metrics.log-interval:PT5M}", initialDelayString = "${shaft.mcp.metrics.log-interval:PT5M}")
+    void logSummary() {
+        if (!logFileConfigured) {
+            return;
+        }
+        toolMetricsSummary.summarize().forEach(summary -> logger.info("Tool {} [{}, {}]: count={} mean={}ms p99={}ms max={}ms",
+                summary.get("tool"), summary.get("browser"), summary.get("outcome"), summary.get("count"),
+                summary.get("meanMillis"), summary.get("p99Millis"), summary.get("maxMillis")));
+    }
+}
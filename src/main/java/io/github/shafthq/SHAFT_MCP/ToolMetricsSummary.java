@@ -0,0 +1,59 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summarizes the per-tool latency recorded by {@link MeteredToolCallback}, for {@code server_get_stats} and the STDIO
+ * log summary, since STDIO mode exposes no metrics endpoint.
+ */
+@Component
+public class ToolMetricsSummary {
+    private final MeterRegistry meterRegistry;
+
+    public ToolMetricsSummary(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Summarizes every tool that has been called, by browser and outcome, slowest p99 first.
+     *
+     * @return The tool, browser, outcome, count, and mean, p99 and max latency in milliseconds of each summary.
+     */
+    public List<Map<String, Object>> summarize() {
+        return meterRegistry.find(MeteredToolCallback.CALLS_METRIC).timers().stream()
+                .filter(timer -> timer.count() > 0)
+                .sorted(Comparator.comparingDouble(ToolMetricsSummary::p99Millis).reversed())
+                .map(ToolMetricsSummary::summarize)
+                .toList();
+    }
+
+    private static Map<String, Object> summarize(Timer timer) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("tool", timer.getId().getTag("tool"));
+        summary.put("browser", timer.getId().getTag("browser"));
+        summary.put("outcome", timer.getId().getTag("outcome"));
+        summary.put("count", timer.count());
+        summary.put("meanMillis", Math.round(timer.mean(TimeUnit.MILLISECONDS)));
+        summary.put("p99Millis", Math.round(p99Millis(timer)));
+        summary.put("maxMillis", Math.round(timer.max(TimeUnit.MILLISECONDS)));
+        return summary;
+    }
+
+    private static double p99Millis(Timer timer) {
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.99) {
+                return percentile.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return timer.max(TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,188 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.util.json.JsonParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Writes the spans recorded by {@link Tracing} to a rolling local file, so traces can be inspected offline.
+ * Each line is an OTLP/JSON {@code ExportTraceServiceRequest}, the format read by the OpenTelemetry Collector's
+ * {@code otlpjsonfile} receiver and by trace viewers that import OTLP files.
+ * Spans are queued and written in batches by a background thread; when the queue is full, spans are dropped and counted
+ * rather than slowing down tool calls.
+ */
+@Component
+public class TraceFileExporter {
+    private static final Logger logger = LoggerFactory.getLogger(TraceFileExporter.class);
+    private static final DateTimeFormatter rolloverTimestamp = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final String FILE_PREFIX = "spans";
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 512;
+    private final boolean enabled;
+    private final double sampleRatio;
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final BlockingQueue<Tracing.SpanData> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final LongAdder exported = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running;
+    private Thread writer;
+
+    public TraceFileExporter(@Value("${shaft.mcp.tracing.enabled:false}") boolean enabled,
+                             @Value("${shaft.mcp.tracing.sample-ratio:1.0}") double sampleRatio,
+                             @Value("${shaft.mcp.tracing.directory:traces}") String directory,
+                             @Value("${shaft.mcp.tracing.max-file-size:10MB}") DataSize maxFileSize,
+                             @Value("${shaft.mcp.tracing.max-files:5}") int maxFiles) {
+        this.enabled = enabled;
+        this.sampleRatio = Math.clamp(sampleRatio, 0.0, 1.0);
+        this.directory = Path.of(directory).toAbsolutePath();
+        this.maxFileBytes = maxFileSize.toBytes();
+        this.maxFiles = Math.max(1, maxFiles);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("shaft-trace-exporter").daemon(true).start(this::drain);
+        Tracing.configure(sampleRatio, span -> {
+            if (!queue.offer(span)) {
+                dropped.increment();
+            }
+        });
+        logger.info("Tracing {} of tool calls to {}", sampleRatio, directory.resolve(FILE_PREFIX + ".jsonl"));
+    }
+
+    long exportedSpans() {
+        return exported.sum();
+    }
+
+    long droppedSpans() {
+        return dropped.sum();
+    }
+
+    private void drain() {
+        List<Tracing.SpanData> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                Tracing.SpanData first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to write {} spans", batch.size(), e);
+                dropped.add(batch.size());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Tracing.SpanData> batch) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(FILE_PREFIX + ".jsonl");
+        if (Files.exists(file) && Files.size(file) >= maxFileBytes) {
+            roll(file);
+        }
+        String line = JsonParser.toJson(toOtlp(batch)) + "\n";
+        Files.writeString(file, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        exported.add(batch.size());
+    }
+
+    private void roll(Path file) throws IOException {
+        Files.move(file, directory.resolve(FILE_PREFIX + "-" + LocalDateTime.now().format(rolloverTimestamp) + ".jsonl"));
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> rolled = files.filter(path -> path.getFileName().toString().startsWith(FILE_PREFIX + "-"))
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+            for (Path old : rolled.subList(Math.min(rolled.size(), maxFiles - 1), rolled.size())) {
+                Files.deleteIfExists(old);
+            }
+        }
+    }
+
+    /**
+     * Builds an OTLP/JSON export request: one resource and one instrumentation scope holding the batch.
+     */
+    private static Map<String, Object> toOtlp(List<Tracing.SpanData> batch) {
+        List<Map<String, Object>> spans = new ArrayList<>(batch.size());
+        for (Tracing.SpanData data : batch) {
+            Map<String, Object> span = new LinkedHashMap<>();
+            span.put("traceId", data.traceId());
+            span.put("spanId", data.spanId());
+            if (data.parentSpanId() != null) {
+                span.put("parentSpanId", data.parentSpanId());
+            }
+            span.put("name", data.name());
+            // SPAN_KIND_SERVER for tool calls, SPAN_KIND_INTERNAL for their phases
+            span.put("kind", data.parentSpanId() == null ? 2 : 1);
+            span.put("startTimeUnixNano", String.valueOf(data.startEpochNanos()));
+            span.put("endTimeUnixNano", String.valueOf(data.endEpochNanos()));
+            span.put("attributes", attributes(data.attributes()));
+            span.put("status", data.errorMessage() == null
+                    ? Map.of("code", 1)
+                    : Map.of("code", 2, "message", data.errorMessage()));
+            spans.add(span);
+        }
+        Map<String, Object> resource = Map.of("attributes", attributes(Map.of(
+                "service.name", "shaft-mcp",
+                "process.pid", ProcessHandle.current().pid())));
+        Map<String, Object> scopeSpans = Map.of(
+                "scope", Map.of("name", TraceFileExporter.class.getPackageName()),
+                "spans", spans);
+        return Map.of("resourceSpans", List.of(Map.of("resource", resource, "scopeSpans", List.of(scopeSpans))));
+    }
+
+    private static List<Map<String, Object>> attributes(Map<String, Object> attributes) {
+        List<Map<String, Object>> keyValues = new ArrayList<>(attributes.size());
+        attributes.forEach((key, value) -> keyValues.add(Map.of("key", key, "value", switch (value) {
+            case Boolean bool -> Map.of("boolValue", bool);
+            case Integer number -> Map.of("intValue", String.valueOf(number));
+            case Long number -> Map.of("intValue", String.valueOf(number));
+            case Double number -> Map.of("doubleValue", number);
+            default -> Map.of("stringValue", String.valueOf(value));
+        })));
+        return keyValues;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        Tracing.configure(0, null);
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+/**
+ * Records every WebDriver command a browser sends as a {@code webdriver.command} span, so that traces separate the
+ * WebDriver round trip from SHAFT's waits, logging and reporting around it, including for tools that have no span of
+ * their own such as screenshots, page source and storage state.
+ */
+final class TracedCommandExecutor implements CommandExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(TracedCommandExecutor.class);
+    private final CommandExecutor delegate;
+
+    private TracedCommandExecutor(CommandExecutor delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Traces the commands of a browser, unless tracing is disabled or they are traced already.
+     * Only browsers driven through a {@link RemoteWebDriver}, which includes the local drivers, can be traced.
+     *
+     * @param driver The browser, possibly wrapped by SHAFT's listeners.
+     */
+    static void install(WebDriver driver) {
+        if (!Tracing.enabled()) {
+            return;
+        }
+        while (driver instanceof WrapsDriver wrapper && wrapper.getWrappedDriver() != driver) {
+            driver = wrapper.getWrappedDriver();
+        }
+        if (!(driver instanceof RemoteWebDriver remoteDriver) || remoteDriver.getCommandExecutor() instanceof TracedCommandExecutor) {
+            return;
+        }
+        try {
+            Method setCommandExecutor = RemoteWebDriver.class.getDeclaredMethod("setCommandExecutor", CommandExecutor.class);
+            setCommandExecutor.setAccessible(true);
+            setCommandExecutor.invoke(remoteDriver, new TracedCommandExecutor(remoteDriver.getCommandExecutor()));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Failed to trace the WebDriver commands of {}", driver.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Response execute(Command command) throws IOException {
+        try (Tracing.Span span = Tracing.start("webdriver.command")) {
+            span.attribute("webdriver.command.name", command.getName());
+            try {
+                return delegate.execute(command);
+            } catch (IOException | RuntimeException e) {
+                span.error(e);
+                throw e;
+            }
+        }
+    }
+}
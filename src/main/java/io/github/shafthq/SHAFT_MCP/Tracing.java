@@ -0,0 +1,187 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Lightweight span tracing of tool calls, without a tracing SDK or collector.
+ * A trace starts when a tool call is dispatched and is sampled as a whole; spans started while a sampled span is
+ * current on the thread become its children. Finished spans are handed to the configured exporter.
+ * When tracing is disabled, or the trace is not sampled, spans are no-ops that record nothing.
+ */
+final class Tracing {
+    private static final ThreadLocal<Span> currentSpan = new ThreadLocal<>();
+    private static final Span NOOP = new Span(null, null, null, null);
+    private static volatile double sampleRatio;
+    private static volatile Consumer<SpanData> exporter;
+
+    private Tracing() {
+    }
+
+    /**
+     * A finished span.
+     *
+     * @param traceId           The 32 hex digit ID of the trace.
+     * @param spanId            The 16 hex digit ID of the span.
+     * @param parentSpanId      The ID of the parent span, absent for the root span.
+     * @param name              The name of the span.
+     * @param startEpochNanos   The start time in nanoseconds since the epoch.
+     * @param endEpochNanos     The end time in nanoseconds since the epoch.
+     * @param attributes        The attributes of the span.
+     * @param errorMessage      The message of the error that ended the span, absent on success.
+     */
+    record SpanData(String traceId, String spanId, String parentSpanId, String name, long startEpochNanos,
+                    long endEpochNanos, Map<String, Object> attributes, String errorMessage) {
+    }
+
+    /**
+     * A span in progress, current on the thread that started it until it is closed.
+     */
+    static final class Span implements AutoCloseable {
+        private final String traceId;
+        private final String spanId;
+        private final Span parent;
+        private final String name;
+        private final long startEpochNanos;
+        private final long startNanos;
+        private final Map<String, Object> attributes = new LinkedHashMap<>();
+        private String errorMessage;
+
+        private Span(String traceId, Span parent, String name, Instant start) {
+            this.traceId = traceId;
+            this.spanId = traceId == null ? null : randomHex(8);
+            this.parent = parent;
+            this.name = name;
+            this.startEpochNanos = start == null ? 0 : start.getEpochSecond() * 1_000_000_000L + start.getNano();
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * @return The trace ID, or {@code null} if this span is not recorded.
+         */
+        String traceId() {
+            return traceId;
+        }
+
+        Span attribute(String key, Object value) {
+            if (traceId != null && value != null) {
+                attributes.put(key, value);
+            }
+            return this;
+        }
+
+        void error(Throwable error) {
+            if (traceId != null) {
+                errorMessage = error.getClass().getSimpleName() + ": " + error.getMessage();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (traceId == null) {
+                return;
+            }
+            if (parent == null) {
+                currentSpan.remove();
+            } else {
+                currentSpan.set(parent);
+            }
+            Consumer<SpanData> spanExporter = exporter;
+            if (spanExporter != null) {
+                spanExporter.accept(new SpanData(traceId, spanId, parent == null ? null : parent.spanId, name, startEpochNanos,
+                        startEpochNanos + (System.nanoTime() - startNanos), Map.copyOf(attributes), errorMessage));
+            }
+        }
+    }
+
+    /**
+     * Enables tracing.
+     *
+     * @param ratio        The fraction of traces to record, from 0 to 1.
+     * @param spanExporter Receives every finished span of the recorded traces.
+     */
+    static void configure(double ratio, Consumer<SpanData> spanExporter) {
+        exporter = spanExporter;
+        sampleRatio = ratio;
+    }
+
+    /**
+     * @return Whether spans can be recorded, even if only a fraction of traces is sampled.
+     */
+    static boolean enabled() {
+        return exporter != null && sampleRatio > 0;
+    }
+
+    /**
+     * Starts the root span of a trace, recorded if the trace is sampled.
+     *
+     * @param name The name of the span.
+     * @return The started span, to be closed by the caller.
+     */
+    static Span startTrace(String name) {
+        double ratio = sampleRatio;
+        if (exporter == null || ratio <= 0 || (ratio < 1 && ThreadLocalRandom.current().nextDouble() >= ratio)) {
+            return NOOP;
+        }
+        Span span = new Span(randomHex(16), null, name, Instant.now());
+        currentSpan.set(span);
+        return span;
+    }
+
+    /**
+     * Starts a child of the current span. Outside a recorded trace nothing is recorded.
+     *
+     * @param name The name of the span.
+     * @return The started span, to be closed by the caller.
+     */
+    static Span start(String name) {
+        Span parent = currentSpan.get();
+        if (parent == null) {
+            return NOOP;
+        }
+        Span span = new Span(parent.traceId, parent, name, Instant.now());
+        currentSpan.set(span);
+        return span;
+    }
+
+    /**
+     * Wraps an implementation of an interface so that every call of its methods runs in a span named
+     * {@code <prefix>.<method>}. When tracing is disabled the implementation is returned unchanged.
+     *
+     * @param type           The interface to trace.
+     * @param implementation The implementation to wrap.
+     * @param prefix         The prefix of the span names.
+     * @return The traced implementation.
+     */
+    static <T> T wrap(Class<T> type, T implementation, String prefix) {
+        if (exporter == null) {
+            return implementation;
+        }
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (instance, method, arguments) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(implementation, arguments);
+            }
+            try (Span span = start(prefix + "." + method.getName())) {
+                try {
+                    return method.invoke(implementation, arguments);
+                } catch (InvocationTargetException e) {
+                    span.error(e.getCause());
+                    throw e.getCause();
+                }
+            }
+        });
+        return type.cast(proxy);
+    }
+
+    private static String randomHex(int bytes) {
+        byte[] id = new byte[bytes];
+        ThreadLocalRandom.current().nextBytes(id);
+        return HexFormat.of().formatHex(id);
+    }
+}
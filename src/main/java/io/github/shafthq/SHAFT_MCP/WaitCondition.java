@@ -0,0 +1,19 @@
+package io.github.shafthq.SHAFT_MCP;
+
+/**
+ * Conditions {@code element_wait_for} can wait for.
+ */
+public enum WaitCondition {
+    /** At least one element matches the locator. */
+    PRESENT,
+    /** No element matches the locator. */
+    ABSENT,
+    /** At least one matching element is rendered and not hidden. */
+    VISIBLE,
+    /** No matching element is rendered, including when none matches. */
+    HIDDEN,
+    /** At least one matching element is not disabled. */
+    ENABLED,
+    /** At least one matching element's text or value contains the expected text. */
+    TEXT_CONTAINS
+}
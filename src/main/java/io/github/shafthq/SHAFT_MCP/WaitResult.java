@@ -0,0 +1,32 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * The result of {@code element_wait_for} and {@code page_wait_for_stable}.
+ *
+ * @param satisfied       Whether the condition was met before the timeout.
+ * @param elapsedMillis   How long the browser waited.
+ * @param matches         The number of elements matching the locator when the wait ended, for element waits.
+ * @param mutations       The number of DOM mutations observed while waiting.
+ * @param pendingRequests The number of fetch/XHR requests still in flight when the wait ended, for page waits.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record WaitResult(boolean satisfied, long elapsedMillis, Integer matches, Integer mutations,
+                         Integer pendingRequests) {
+
+    /**
+     * @param result The object a wait script passed to its callback.
+     * @return The wait result it describes.
+     */
+    static WaitResult from(Map<String, Object> result) {
+        return new WaitResult(Boolean.TRUE.equals(result.get("satisfied")), ((Number) result.get("elapsedMillis")).longValue(),
+                intOrNull(result.get("matches")), intOrNull(result.get("mutations")), intOrNull(result.get("pendingRequests")));
+    }
+
+    private static Integer intOrNull(Object value) {
+        return value instanceof Number number ? number.intValue() : null;
+    }
+}
@@ -0,0 +1,48 @@
+// Reads the state of the elements matching a locator in a single round trip.
+// arguments[0]: locator strategy, arguments[1]: locator value
+// arguments[2]: DOM attribute names, arguments[3]: DOM property names, arguments[4]: CSS property names
+// arguments[5]: whether to inspect all matching elements or only the first one
+var attributes = arguments[2], properties = arguments[3], cssProperties = arguments[4], allMatches = arguments[5];
+var matches = shaftFindAll(arguments[0], arguments[1]);
+
+function isDisplayed(el, style) {
+    if (style.display === 'none' || style.visibility === 'hidden' || style.visibility === 'collapse' || style.opacity === '0') {
+        return false;
+    }
+    var rect = el.getBoundingClientRect();
+    return rect.width > 0 && rect.height > 0;
+}
+
+function primitive(value) {
+    if (value === null || value === undefined) {
+        return null;
+    }
+    return typeof value === 'object' || typeof value === 'function' ? String(value) : value;
+}
+
+function inspect(el) {
+    var style = window.getComputedStyle(el);
+    var state = {
+        tag: el.tagName.toLowerCase(),
+        text: (el.innerText !== undefined ? el.innerText : el.textContent).trim(),
+        displayed: isDisplayed(el, style),
+        enabled: !el.disabled,
+        selected: !!(el.selected || el.checked)
+    };
+    if (attributes.length) {
+        state.attributes = {};
+        attributes.forEach(function (name) { state.attributes[name] = el.getAttribute(name); });
+    }
+    if (properties.length) {
+        state.properties = {};
+        properties.forEach(function (name) { state.properties[name] = primitive(el[name]); });
+    }
+    if (cssProperties.length) {
+        state.css = {};
+        cssProperties.forEach(function (name) { state.css[name] = style.getPropertyValue(name); });
+    }
+    return state;
+}
+
+var inspected = allMatches ? matches : matches.slice(0, 1);
+return {count: matches.length, elements: inspected.map(inspect)};
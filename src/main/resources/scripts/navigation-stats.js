@@ -0,0 +1,12 @@
+// Summarizes the current page load from the Navigation and Resource Timing entries.
+var navigation = performance.getEntriesByType('navigation')[0];
+var resources = performance.getEntriesByType('resource');
+var transferredBytes = navigation ? (navigation.transferSize || 0) : 0;
+for (var i = 0; i < resources.length; i++) {
+    transferredBytes += resources[i].transferSize || 0;
+}
+var loadTimeMillis = null;
+if (navigation) {
+    loadTimeMillis = Math.round((navigation.loadEventEnd > 0 ? navigation.loadEventEnd : performance.now()) - navigation.startTime);
+}
+return {loadTimeMillis: loadTimeMillis, transferredBytes: transferredBytes, resourceCount: resources.length};
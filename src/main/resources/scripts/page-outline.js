@@ -0,0 +1,123 @@
+// Emits a compact outline of the visible, interactive or text-bearing elements of the page.
+// arguments[0]: offset of the first node to return
+// arguments[1]: maximum number of nodes to return
+// arguments[2]: maximum length of each node's text
+var offset = arguments[0], limit = arguments[1], maxTextLength = arguments[2];
+var SKIPPED = {SCRIPT: 1, STYLE: 1, NOSCRIPT: 1, TEMPLATE: 1, SVG: 1, svg: 1, HEAD: 1, META: 1, LINK: 1, IFRAME: 1};
+var INTERACTIVE = {A: 1, BUTTON: 1, INPUT: 1, SELECT: 1, TEXTAREA: 1, SUMMARY: 1, OPTION: 1, LABEL: 1};
+var INTERACTIVE_ROLES = {button: 1, link: 1, checkbox: 1, radio: 1, tab: 1, menuitem: 1, option: 1, switch: 1, textbox: 1, combobox: 1};
+
+function isVisible(el, style) {
+    if (style.visibility === 'hidden' || style.opacity === '0') {
+        return false;
+    }
+    var rect = el.getBoundingClientRect();
+    return rect.width > 0 && rect.height > 0;
+}
+
+function isInteractive(el) {
+    return INTERACTIVE[el.tagName] === 1
+        || INTERACTIVE_ROLES[el.getAttribute('role')] === 1
+        || el.hasAttribute('onclick')
+        || el.isContentEditable
+        || (el.hasAttribute('tabindex') && el.tabIndex >= 0);
+}
+
+function ownText(el) {
+    var text = '';
+    for (var child = el.firstChild; child; child = child.nextSibling) {
+        if (child.nodeType === Node.TEXT_NODE) {
+            text += child.nodeValue;
+        }
+    }
+    return text.replace(/\s+/g, ' ').trim();
+}
+
+function isUnique(selector) {
+    try {
+        return document.querySelectorAll(selector).length === 1;
+    } catch (e) {
+        return false;
+    }
+}
+
+function cssPath(el) {
+    var path = [];
+    while (el && el.nodeType === Node.ELEMENT_NODE && el !== document.documentElement) {
+        if (el.id && isUnique('#' + CSS.escape(el.id))) {
+            path.unshift('#' + CSS.escape(el.id));
+            break;
+        }
+        var tag = el.tagName.toLowerCase(), index = 1;
+        for (var sibling = el.previousElementSibling; sibling; sibling = sibling.previousElementSibling) {
+            if (sibling.tagName === el.tagName) {
+                index++;
+            }
+        }
+        path.unshift(tag + ':nth-of-type(' + index + ')');
+        el = el.parentElement;
+    }
+    return path.join(' > ');
+}
+
+function locatorOf(el) {
+    if (el.id && isUnique('#' + CSS.escape(el.id))) {
+        return ['ID', el.id];
+    }
+    var name = el.getAttribute('name');
+    if (name && isUnique('[name="' + CSS.escape(name) + '"]')) {
+        return ['NAME', name];
+    }
+    return ['CSSSELECTOR', cssPath(el)];
+}
+
+var nodes = [], total = 0;
+var walker = document.createTreeWalker(document.body, NodeFilter.SHOW_ELEMENT, {
+    acceptNode: function (el) {
+        if (SKIPPED[el.tagName] === 1) {
+            return NodeFilter.FILTER_REJECT;
+        }
+        var style = window.getComputedStyle(el);
+        if (style.display === 'none') {
+            return NodeFilter.FILTER_REJECT;
+        }
+        // invisible containers may still hold visible descendants, so only the element itself is skipped
+        return isVisible(el, style) ? NodeFilter.FILTER_ACCEPT : NodeFilter.FILTER_SKIP;
+    }
+});
+for (var el = walker.nextNode(); el; el = walker.nextNode()) {
+    var interactive = isInteractive(el);
+    var text = ownText(el);
+    if (!interactive && !text) {
+        continue;
+    }
+    if (total++ < offset || nodes.length >= limit) {
+        continue;
+    }
+    var locator = locatorOf(el);
+    var node = {tag: el.tagName.toLowerCase(), locatorStrategy: locator[0], locatorValue: locator[1]};
+    if (!text && interactive) {
+        text = (el.getAttribute('aria-label') || el.getAttribute('placeholder') || el.getAttribute('title') || el.value || '').toString().trim();
+    }
+    if (text) {
+        node.text = text.length > maxTextLength ? text.substring(0, maxTextLength) + '…' : text;
+    }
+    if (interactive) {
+        node.interactive = true;
+    }
+    if (el.getAttribute('role')) {
+        node.role = el.getAttribute('role');
+    }
+    if (el.tagName === 'INPUT' && el.type) {
+        node.type = el.type;
+    }
+    if (el.tagName === 'A' && el.getAttribute('href')) {
+        node.href = el.getAttribute('href').substring(0, maxTextLength);
+    }
+    nodes.push(node);
+}
+var result = {url: location.href, title: document.title, total: total, offset: offset, nodes: nodes};
+if (offset + nodes.length < total) {
+    result.nextOffset = offset + nodes.length;
+}
+return result;
@@ -0,0 +1,28 @@
+// Resolves a locatorStrategy/value pair to the matching elements, with the same semantics as EngineService.getLocator.
+function shaftFindAll(strategy, value) {
+    function byCss(selector) {
+        return Array.prototype.slice.call(document.querySelectorAll(selector));
+    }
+    function attributeEquals(name) {
+        return byCss('[' + name + '="' + CSS.escape(value) + '"]');
+    }
+    switch (strategy) {
+        case 'ID':
+            return attributeEquals('id');
+        case 'NAME':
+            return attributeEquals('name');
+        case 'CLASSNAME':
+            return attributeEquals('class');
+        case 'TAGNAME':
+            return Array.prototype.slice.call(document.getElementsByTagName(value));
+        case 'XPATH':
+            var snapshot = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+            var elements = [];
+            for (var i = 0; i < snapshot.snapshotLength; i++) {
+                elements.push(snapshot.snapshotItem(i));
+            }
+            return elements;
+        default:
+            return byCss(value);
+    }
+}
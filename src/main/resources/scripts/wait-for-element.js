@@ -0,0 +1,79 @@
+// Waits inside the page until the elements matching a locator meet a condition.
+// The condition is re-checked on every DOM mutation, and every 250 ms for changes that do not mutate the DOM.
+// arguments[0]: locator strategy, arguments[1]: locator value
+// arguments[2]: condition, arguments[3]: text for TEXT_CONTAINS, arguments[4]: timeout in milliseconds
+// last argument: callback supplied by executeAsyncScript
+var strategy = arguments[0], value = arguments[1], condition = arguments[2], text = arguments[3], timeout = arguments[4];
+var done = arguments[arguments.length - 1];
+var start = Date.now();
+var finished = false, mutations = 0, observer = null, poll = null, timer = null;
+
+function isVisible(element) {
+    return element.getClientRects().length > 0 && getComputedStyle(element).visibility !== 'hidden';
+}
+
+function containsText(element) {
+    var content = element.innerText || element.textContent || '';
+    return content.indexOf(text) >= 0 || (typeof element.value === 'string' && element.value.indexOf(text) >= 0);
+}
+
+function check() {
+    var matches;
+    try {
+        matches = shaftFindAll(strategy, value);
+    } catch (e) {
+        matches = [];
+    }
+    var satisfied;
+    switch (condition) {
+        case 'PRESENT':
+            satisfied = matches.length > 0;
+            break;
+        case 'ABSENT':
+            satisfied = matches.length === 0;
+            break;
+        case 'HIDDEN':
+            satisfied = !matches.some(isVisible);
+            break;
+        case 'ENABLED':
+            satisfied = matches.some(function (element) { return !element.disabled; });
+            break;
+        case 'TEXT_CONTAINS':
+            satisfied = matches.some(containsText);
+            break;
+        default:
+            satisfied = matches.some(isVisible);
+    }
+    return {satisfied: satisfied, matches: matches.length};
+}
+
+function finish(result) {
+    if (finished) {
+        return;
+    }
+    finished = true;
+    if (observer) observer.disconnect();
+    clearInterval(poll);
+    clearTimeout(timer);
+    done({satisfied: result.satisfied, elapsedMillis: Date.now() - start, matches: result.matches, mutations: mutations});
+}
+
+function recheck() {
+    var result = check();
+    if (result.satisfied) {
+        finish(result);
+    }
+}
+
+var initial = check();
+if (initial.satisfied) {
+    finish(initial);
+} else {
+    observer = new MutationObserver(function (records) {
+        mutations += records.length;
+        recheck();
+    });
+    observer.observe(document, {childList: true, subtree: true, attributes: true, characterData: true});
+    poll = setInterval(recheck, 250);
+    timer = setTimeout(function () { finish(check()); }, timeout);
+}
@@ -0,0 +1,53 @@
+// Waits inside the page until it is stable: the document has loaded, no fetch/XHR request started from the page is
+// in flight, and neither the DOM nor the resource timeline has changed for the quiet period.
+// arguments[0]: quiet period in milliseconds, arguments[1]: timeout in milliseconds
+// last argument: callback supplied by executeAsyncScript
+var quietMillis = arguments[0], timeout = arguments[1];
+var done = arguments[arguments.length - 1];
+var start = Date.now();
+
+// Track in-flight requests; the wrappers stay installed for the lifetime of the page, so later calls see requests
+// started in between.
+if (!window.__shaftNetwork) {
+    var network = window.__shaftNetwork = {pending: 0};
+    if (window.fetch) {
+        var originalFetch = window.fetch;
+        window.fetch = function () {
+            network.pending++;
+            return originalFetch.apply(this, arguments).finally(function () { network.pending--; });
+        };
+    }
+    var originalSend = XMLHttpRequest.prototype.send;
+    XMLHttpRequest.prototype.send = function () {
+        network.pending++;
+        this.addEventListener('loadend', function () { network.pending--; }, {once: true});
+        return originalSend.apply(this, arguments);
+    };
+}
+
+var tracker = window.__shaftNetwork;
+var lastActivity = Date.now(), mutations = 0, resources = null;
+var observer = new MutationObserver(function (records) {
+    mutations += records.length;
+    lastActivity = Date.now();
+});
+observer.observe(document, {childList: true, subtree: true, attributes: true, characterData: true});
+if (window.PerformanceObserver) {
+    try {
+        resources = new PerformanceObserver(function () { lastActivity = Date.now(); });
+        resources.observe({type: 'resource'});
+    } catch (e) {
+        resources = null;
+    }
+}
+
+var poll = setInterval(function () {
+    var now = Date.now();
+    var stable = document.readyState === 'complete' && tracker.pending <= 0 && now - lastActivity >= quietMillis;
+    if (stable || now - start >= timeout) {
+        clearInterval(poll);
+        observer.disconnect();
+        if (resources) resources.disconnect();
+        done({satisfied: stable, elapsedMillis: now - start, mutations: mutations, pendingRequests: Math.max(0, tracker.pending)});
+    }
+}, 50);
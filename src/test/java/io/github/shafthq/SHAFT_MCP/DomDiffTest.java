@@ -0,0 +1,83 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the incremental page source diff.
+ * These tests do not need a browser.
+ */
+class DomDiffTest {
+    private static final String PAGE = """
+            <html><head><title>Cart</title></head><body>
+            <div id="header"><h1>Shop</h1></div>
+            <ul id="items"><li>Apple</li><li>Pear</li></ul>
+            <div id="footer">Total: 2</div>
+            </body></html>""";
+
+    /**
+     * Tests that only the smallest changed subtree is reported.
+     */
+    @Test
+    void testOnlyChangedSubtreeIsReported() {
+        String updatedPage = PAGE.replace("<li>Pear</li>", "<li>Plum</li>");
+
+        List<DomChange> changes = DomDiff.diff(PAGE, updatedPage);
+
+        assertEquals(1, changes.size(), "Only one subtree should have changed");
+        assertEquals("<li>Plum</li>", changes.getFirst().html());
+        assertTrue(changes.getFirst().selector().contains("#items"), "Selector should be anchored on the list, actual: " + changes.getFirst().selector());
+    }
+
+    /**
+     * Tests that equivalent documents have no changes, and that a changed attribute deep in the tree is reported on
+     * its own element only.
+     */
+    @Test
+    void testNestedAttributeChangeIsReportedOnItsElement() {
+        String nestedPage = PAGE.replace("<h1>Shop</h1>", "<h1><span class=\"logo\">Shop</span></h1>");
+
+        assertTrue(DomDiff.diff(nestedPage, nestedPage).isEmpty(), "Equivalent documents should have no changes");
+
+        List<DomChange> changes = DomDiff.diff(nestedPage, nestedPage.replace("class=\"logo\"", "class=\"logo dark\""));
+
+        assertEquals(1, changes.size());
+        assertEquals("<span class=\"logo dark\">Shop</span>", changes.getFirst().html());
+    }
+
+    /**
+     * Tests that an added child replaces its parent, since the child positions no longer line up.
+     */
+    @Test
+    void testAddedChildReplacesParent() {
+        String updatedPage = PAGE.replace("<li>Pear</li>", "<li>Pear</li><li>Fig</li>");
+
+        List<DomChange> changes = DomDiff.diff(PAGE, updatedPage);
+
+        assertEquals(1, changes.size());
+        assertEquals("#items", changes.getFirst().selector());
+        assertTrue(changes.getFirst().html().contains("<li>Fig</li>"));
+    }
+
+    /**
+     * Tests that the tracker returns a diff against a known version and a full snapshot otherwise.
+     */
+    @Test
+    void testTrackerFallsBackToFullSnapshotForUnknownVersion() {
+        PageSourceTracker tracker = new PageSourceTracker();
+
+        PageSourceDiff first = tracker.update(PAGE, null);
+        PageSourceDiff second = tracker.update(PAGE.replace("Total: 2", "Total: 3"), first.version());
+        PageSourceDiff third = tracker.update(PAGE, "unknown");
+
+        assertTrue(first.full(), "First snapshot should be full");
+        assertFalse(second.full(), "Snapshot against a known version should be a diff");
+        assertEquals(first.version(), second.baseVersion());
+        assertEquals(1, second.changes().size());
+        assertEquals("#footer", second.changes().getFirst().selector());
+        assertTrue(third.full(), "Snapshot against an unknown version should be full");
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the compiled locator cache.
+ * These tests do not need a browser.
+ */
+class LocatorCacheTest {
+
+    /**
+     * Tests that a repeated locator is compiled once and served from the cache afterwards.
+     */
+    @Test
+    void testRepeatedLocatorIsCompiledOnce() {
+        LocatorCache cache = new LocatorCache(10);
+        AtomicInteger compilations = new AtomicInteger();
+
+        By first = cache.get(locatorStrategy.CSS, "#login", (strategy, value) -> {
+            compilations.incrementAndGet();
+            return By.cssSelector(value);
+        });
+        By second = cache.get(locatorStrategy.CSS, "#login", (strategy, value) -> {
+            compilations.incrementAndGet();
+            return By.cssSelector(value);
+        });
+
+        assertSame(first, second, "Cached locator should be reused");
+        assertEquals(1, compilations.get(), "Locator should only be compiled once");
+        assertEquals(1L, cache.stats().get("hits"));
+        assertEquals(1L, cache.stats().get("misses"));
+    }
+
+    /**
+     * Tests that the least recently used locator is evicted once the cache is full.
+     */
+    @Test
+    void testLeastRecentlyUsedLocatorIsEvicted() {
+        LocatorCache cache = new LocatorCache(2);
+        cache.get(locatorStrategy.ID, "a", (strategy, value) -> By.id(value));
+        cache.get(locatorStrategy.ID, "b", (strategy, value) -> By.id(value));
+        // touch "a" so that "b" becomes the least recently used entry
+        cache.get(locatorStrategy.ID, "a", (strategy, value) -> By.id(value));
+        cache.get(locatorStrategy.ID, "c", (strategy, value) -> By.id(value));
+
+        AtomicInteger compilations = new AtomicInteger();
+        cache.get(locatorStrategy.ID, "a", (strategy, value) -> {
+            compilations.incrementAndGet();
+            return By.id(value);
+        });
+        cache.get(locatorStrategy.ID, "b", (strategy, value) -> {
+            compilations.incrementAndGet();
+            return By.id(value);
+        });
+
+        assertEquals(1, compilations.get(), "Only the evicted locator should be compiled again");
+        assertEquals(2, cache.stats().get("size"));
+    }
+
+    /**
+     * Tests that ID, NAME and CLASSNAME locators use native locators with the same semantics as SHAFT's XPath.
+     */
+    @Test
+    void testNativeFastPathLocators() {
+        assertEquals(By.id("username"), EngineService.getLocator(locatorStrategy.ID, "username"));
+        assertEquals(By.name("q"), EngineService.getLocator(locatorStrategy.NAME, "q"));
+        assertEquals(By.cssSelector("[class=\"btn \\\"primary\\\"\"]"),
+                EngineService.getLocator(locatorStrategy.CLASSNAME, "btn \"primary\""));
+    }
+
+    /**
+     * Tests that control characters in a CLASSNAME value are written as CSS hexadecimal escapes, so the selector
+     * stays valid and still matches the exact class attribute.
+     */
+    @Test
+    void testClassNameControlCharactersAreHexEscaped() {
+        assertEquals(By.cssSelector("[class=\"a\\9 b\\a c\\0 \\7f \\\\\"]"),
+                EngineService.getLocator(locatorStrategy.CLASSNAME, "a\tb\nc\u0000\u007f\\"));
+    }
+}
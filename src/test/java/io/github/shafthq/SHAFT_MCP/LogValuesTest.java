@@ -0,0 +1,73 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the truncation of logged values and the per-tool log levels.
+ * These tests do not need a browser.
+ */
+class LogValuesTest {
+
+    @AfterEach
+    void tearDown() {
+        LogValues.maxChars(256);
+        MDC.remove(LoggingPolicy.TOOL_KEY);
+    }
+
+    /**
+     * Tests that short values are logged as they are, without being wrapped.
+     */
+    @Test
+    void testShortValueIsNotWrapped() {
+        LogValues.maxChars(10);
+
+        assertSame("short", LogValues.truncate("short"));
+        assertNull(LogValues.truncate((String) null));
+    }
+
+    /**
+     * Tests that long values are cut to the maximum length, followed by their full length.
+     */
+    @Test
+    void testLongValueIsTruncated() {
+        LogValues.maxChars(4);
+
+        assertEquals("abcd... (10 chars)", LogValues.truncate("abcdefghij").toString());
+    }
+
+    /**
+     * Tests that typed text is joined and truncated when it is formatted.
+     */
+    @Test
+    void testTypedTextIsJoinedAndTruncated() {
+        LogValues.maxChars(8);
+
+        assertEquals("ab, cd", LogValues.truncate(new CharSequence[]{"ab", "cd"}).toString());
+        assertEquals("abcd, ef... (12 chars)", LogValues.truncate(new CharSequence[]{"abcd", "efghij"}).toString());
+    }
+
+    /**
+     * Tests that statements of a tool below its configured level are denied, and other tools are not affected.
+     */
+    @Test
+    void testToolLevelDeniesLowerLevelsOfThatToolOnly() {
+        LoggingPolicy.ToolLevelFilter filter = new LoggingPolicy.ToolLevelFilter(Map.of("element_get_text", Level.WARN));
+        ch.qos.logback.classic.Logger logger = new LoggerContext().getLogger(ElementService.class);
+
+        MDC.put(LoggingPolicy.TOOL_KEY, "element_get_text");
+        assertEquals(FilterReply.DENY, filter.decide(null, logger, Level.INFO, "message", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.WARN, "message", null, null));
+
+        MDC.put(LoggingPolicy.TOOL_KEY, "element_click");
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "message", null, null));
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for recognizing resource types by URL, as done when the browser does not report request types.
+ * These tests do not need a browser.
+ */
+class NetworkProfileResourceTypeTest {
+    /**
+     * Tests that resource types are recognized by the end of the URL path when the browser does not report request
+     * types, so page URLs that merely contain an extension are not blocked.
+     */
+    @Test
+    void testResourceTypesMatchOnlyTheEndOfThePath() {
+        assertTrue(NetworkProfile.ResourceType.IMAGE.matchesUrl("https://example.com/logo.png?v=2#top"));
+        assertTrue(NetworkProfile.ResourceType.STYLESHEET.matchesUrl("https://example.com/assets/site.CSS"));
+        assertFalse(NetworkProfile.ResourceType.STYLESHEET.matchesUrl("https://www.css-tricks.com/"));
+        assertFalse(NetworkProfile.ResourceType.MEDIA.matchesUrl("https://www.movies.com/"));
+        assertFalse(NetworkProfile.ResourceType.IMAGE.matchesUrl("https://www.icons8.com/icons.php"));
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies resource blocking against a local static HTTP server serving a page with a heavy image.
+ * A remote browser cannot reach the local server, so the test is skipped when a remote driver is configured.
+ */
+@SpringBootTest
+@DisabledIfEnvironmentVariable(named = "REMOTE_DRIVER_ADDRESS", matches = ".+")
+class NetworkProfileTest {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkProfileTest.class);
+    private static final int IMAGE_SIZE = 2 * 1024 * 1024;
+    private static final AtomicInteger imageRequests = new AtomicInteger();
+    private static final AtomicInteger extensionlessImageRequests = new AtomicInteger();
+    private static HttpServer server;
+    private static String pageUrl;
+
+    @Autowired
+    private EngineService engineService;
+
+    @Autowired
+    private BrowserService browserService;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/index.html", exchange -> respond(exchange, "text/html",
+                "<html><head><title>Heavy</title></head><body><h1>Heavy</h1><img src=\"/heavy.png\"><img src=\"/avatar\"></body></html>"
+                        .getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/heavy.png", exchange -> {
+            imageRequests.incrementAndGet();
+            respond(exchange, "image/png", new byte[IMAGE_SIZE]);
+        });
+        server.createContext("/avatar", exchange -> {
+            extensionlessImageRequests.incrementAndGet();
+            respond(exchange, "image/png", new byte[1024]);
+        });
+        server.start();
+        pageUrl = "http://localhost:" + server.getAddress().getPort() + "/index.html";
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        try {
+            engineService.quitDriver();
+        } catch (Exception e) {
+            logger.warn("Failed to quit driver in cleanup", e);
+        }
+    }
+
+    /**
+     * Tests that blocking images stops the browser from requesting them and reports the bytes saved
+     * compared to a navigation without blocking.
+     */
+    @Test
+    void testBlockingImagesSavesBytes() {
+        engineService.initializeDriver(BrowserType.CHROME);
+        NavigationStats baseline = browserService.navigate(pageUrl);
+        assertEquals(1, imageRequests.get(), "The image should be loaded without a network profile");
+        assertTrue(baseline.transferredBytes() >= IMAGE_SIZE, "The baseline should include the image");
+
+        NetworkProfileStatus status = browserService.setNetworkProfile(
+                new NetworkProfile(List.of(NetworkProfile.ResourceType.IMAGE), null, null));
+        assertNotEquals("none", status.mechanism(), "Images should be blocked");
+
+        NavigationStats blocked = browserService.navigate(pageUrl);
+        logger.info("Baseline: {}, blocked: {}", baseline, blocked);
+        assertEquals(1, imageRequests.get(), "The image should not be requested while blocked");
+        assertEquals(1, extensionlessImageRequests.get(), "Images without a file extension should be blocked too");
+        assertEquals(Set.of(NetworkProfile.ResourceType.IMAGE), blocked.blockedResourceTypes(), "The blocked types should be reported");
+        assertNotNull(blocked.bytesSaved(), "Savings should be reported against the baseline");
+        assertTrue(blocked.bytesSaved() >= IMAGE_SIZE, "The image size should be saved");
+        assertEquals("Heavy", browserService.getTitle(), "The DOM should still load");
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        // keep the browser cache from hiding the difference between the two navigations
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream response = exchange.getResponseBody()) {
+            response.write(body);
+        }
+    }
+}
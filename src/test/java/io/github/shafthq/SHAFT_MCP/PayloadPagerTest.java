@@ -0,0 +1,115 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for paging of large text results.
+ * These tests do not need a browser.
+ */
+class PayloadPagerTest {
+    private final PayloadPager pager = new PayloadPager(DataSize.ofBytes(10), DataSize.ofBytes(100), Duration.ofMinutes(1));
+
+    /**
+     * Tests that a text within the budget is returned whole, without a cursor and without being kept.
+     */
+    @Test
+    void testSmallTextIsReturnedWhole() {
+        PagedResults results = new PagedResults();
+
+        TextPage page = pager.page(results, () -> "short", null, null);
+
+        assertEquals("short", page.text());
+        assertEquals(5, page.totalBytes());
+        assertNull(page.nextCursor());
+        assertEquals(0, results.totalBytes());
+    }
+
+    /**
+     * Tests that following the cursors returns the whole text, reading it from the browser only once.
+     */
+    @Test
+    void testCursorsReturnTheWholeTextFromOneRead() {
+        PagedResults results = new PagedResults();
+        AtomicInteger reads = new AtomicInteger();
+        String text = "abcdefghijklmnopqrstuvwxyz";
+
+        StringBuilder collected = new StringBuilder();
+        TextPage page = pager.page(results, () -> {
+            reads.incrementAndGet();
+            return text;
+        }, null, null);
+        collected.append(page.text());
+        while (page.nextCursor() != null) {
+            page = pager.page(results, () -> fail("Later pages should not read the text again"), page.nextCursor(), null);
+            assertTrue(page.text().length() <= 10, "Pages should respect the budget");
+            collected.append(page.text());
+        }
+
+        assertEquals(text, collected.toString());
+        assertEquals(1, reads.get());
+        assertEquals(26, page.totalBytes());
+    }
+
+    /**
+     * Tests that the page size requested by a call can lower, but not raise, the server budget.
+     */
+    @Test
+    void testRequestedPageSizeIsCappedByTheBudget() {
+        String text = "abcdefghijklmnopqrstuvwxyz";
+
+        assertEquals(4, pager.page(new PagedResults(), () -> text, null, 4).text().length());
+        assertEquals(10, pager.page(new PagedResults(), () -> text, null, 1000).text().length());
+    }
+
+    /**
+     * Tests that pages never split a multi-byte character.
+     */
+    @Test
+    void testPagesDoNotSplitCharacters() {
+        PagedResults results = new PagedResults();
+        String text = "ééééééééé€€€€";
+
+        StringBuilder collected = new StringBuilder();
+        TextPage page = pager.page(results, () -> text, null, null);
+        collected.append(page.text());
+        while (page.nextCursor() != null) {
+            page = pager.page(results, () -> text, page.nextCursor(), null);
+            collected.append(page.text());
+        }
+
+        assertEquals(text, collected.toString());
+        assertEquals(text.getBytes(StandardCharsets.UTF_8).length, page.totalBytes());
+    }
+
+    /**
+     * Tests that a text larger than the cache returns its first page only, marked as truncated.
+     */
+    @Test
+    void testTextLargerThanTheCacheIsTruncated() {
+        TextPage page = pager.page(new PagedResults(), () -> "x".repeat(200), null, null);
+
+        assertEquals(10, page.text().length());
+        assertEquals(200, page.totalBytes());
+        assertNull(page.nextCursor());
+        assertEquals(Boolean.TRUE, page.truncated());
+    }
+
+    /**
+     * Tests that unknown and malformed cursors are rejected.
+     */
+    @Test
+    void testInvalidCursorsAreRejected() {
+        PagedResults results = new PagedResults();
+
+        assertThrows(IllegalArgumentException.class, () -> pager.page(results, () -> "", "not a cursor", null));
+        String nextCursor = pager.page(new PagedResults(), () -> "x".repeat(50), null, null).nextCursor();
+        assertThrows(IllegalArgumentException.class, () -> pager.page(results, () -> "", nextCursor, null));
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for background report generation.
+ * The Allure generation is replaced by a stub, so these tests do not need Allure or a browser.
+ */
+class ReportJobsTest {
+
+    /**
+     * Tests that a generation failing with an {@link Error}, as SHAFT's assertion failures do, is reported as failed
+     * and does not block later generations.
+     */
+    @Test
+    void testErrorFailsTheJobAndFreesTheGenerator() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        ReportJobs reportJobs = new ReportJobs(() -> {
+            if (runs.incrementAndGet() == 1) {
+                throw new AssertionError("allure failed");
+            }
+        });
+
+        ReportJob failed = awaitFinished(reportJobs, reportJobs.submit().jobId());
+        ReportJob next = awaitFinished(reportJobs, reportJobs.submit().jobId());
+
+        assertEquals(ReportJob.State.FAILED, failed.state());
+        assertEquals("allure failed", failed.error());
+        assertEquals(ReportJob.State.SUCCEEDED, next.state());
+        assertNotEquals(failed.jobId(), next.jobId());
+        reportJobs.shutdown();
+    }
+
+    /**
+     * Tests that requests made during a generation share one queued follow-up generation, which runs after it.
+     */
+    @Test
+    void testRequestsDuringGenerationQueueOneFollowUp() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        ReportJobs reportJobs = new ReportJobs(() -> {
+            runs.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        ReportJob running = reportJobs.submit();
+        ReportJob queued = reportJobs.submit();
+        ReportJob joined = reportJobs.submit();
+        release.countDown();
+
+        assertEquals(ReportJob.State.QUEUED, queued.state());
+        assertEquals(queued.jobId(), joined.jobId());
+        assertNotEquals(running.jobId(), queued.jobId());
+        assertEquals(ReportJob.State.SUCCEEDED, awaitFinished(reportJobs, running.jobId()).state());
+        assertEquals(ReportJob.State.SUCCEEDED, awaitFinished(reportJobs, queued.jobId()).state());
+        assertEquals(2, runs.get());
+        assertFalse(reportJobs.isBusy());
+        reportJobs.shutdown();
+    }
+
+    private static ReportJob awaitFinished(ReportJobs reportJobs, String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            ReportJob job = reportJobs.get(jobId).orElseThrow();
+            if (job.state() == ReportJob.State.SUCCEEDED || job.state() == ReportJob.State.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        fail("Report job " + jobId + " did not finish");
+        return null;
+    }
+}
@@ -0,0 +1,188 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that tool calls are serialized per session and run in parallel across sessions,
+ * and compares thread usage and throughput of the virtual thread and caller thread modes.
+ * Browser calls are simulated by sleeping, so these tests do not need a browser.
+ */
+class SessionExecutorsTest {
+    private static final Logger logger = LoggerFactory.getLogger(SessionExecutorsTest.class);
+    private static final int SESSIONS = 200;
+    private static final int CALLS_PER_SESSION = 5;
+    private static final long CALL_MILLIS = 20;
+
+    /**
+     * Tests that calls of the same session never overlap, with virtual threads.
+     */
+    @Test
+    void testCallsAreSerializedPerSessionWithVirtualThreads() throws Exception {
+        runConcurrentSessions(new SessionExecutors(true), Executors.newVirtualThreadPerTaskExecutor(), "virtual threads");
+    }
+
+    /**
+     * Tests that calls of the same session never overlap, with the caller's platform threads.
+     * The callers are a fixed pool sized like the default servlet container thread pool.
+     */
+    @Test
+    void testCallsAreSerializedPerSessionWithCallerThreads() throws Exception {
+        runConcurrentSessions(new SessionExecutors(false), Executors.newFixedThreadPool(200), "caller threads");
+    }
+
+    /**
+     * Tests that closing a session from one of its calls, as quitting the driver does, keeps the calls queued behind it
+     * and the calls made afterwards in order, with virtual threads.
+     */
+    @Test
+    void testCloseKeepsQueuedAndLaterCallsInOrderWithVirtualThreads() throws Exception {
+        closeWhileCallsAreQueued(new SessionExecutors(true));
+    }
+
+    /**
+     * Tests that closing a session from one of its calls keeps the calls queued behind it and the calls made afterwards
+     * in order, with the caller's platform threads.
+     */
+    @Test
+    void testCloseKeepsQueuedAndLaterCallsInOrderWithCallerThreads() throws Exception {
+        closeWhileCallsAreQueued(new SessionExecutors(false));
+    }
+
+    /**
+     * Tests that a session is busy while one of its calls runs, so background sweeps can skip it instead of waiting.
+     */
+    @Test
+    void testSessionIsBusyWhileACallRuns() throws Exception {
+        SessionExecutors sessionExecutors = new SessionExecutors(true);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> call = callers.submit(() -> sessionExecutors.call("busy-session", () -> {
+                started.countDown();
+                release.await();
+                return null;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertTrue(sessionExecutors.isBusy("busy-session"));
+            assertFalse(sessionExecutors.isBusy("other-session"));
+            release.countDown();
+            call.get(5, TimeUnit.SECONDS);
+        } finally {
+            sessionExecutors.shutdown();
+        }
+        assertFalse(sessionExecutors.isBusy("busy-session"));
+    }
+
+    private void closeWhileCallsAreQueued(SessionExecutors sessionExecutors) throws Exception {
+        String sessionId = "closing-session";
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> first = callers.submit(() -> sessionExecutors.call(sessionId, () -> {
+                firstStarted.countDown();
+                releaseFirst.await();
+                order.add(1);
+                sessionExecutors.close(sessionId);
+                closed.countDown();
+                return null;
+            }));
+            firstStarted.await();
+            Future<?> queued = callers.submit(() -> sessionExecutors.call(sessionId, () -> {
+                if (running.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+                Thread.sleep(200);
+                order.add(2);
+                running.decrementAndGet();
+                return null;
+            }));
+            // give the second call time to queue behind the first
+            Thread.sleep(100);
+            releaseFirst.countDown();
+            closed.await();
+            Future<?> later = callers.submit(() -> sessionExecutors.call(sessionId, () -> {
+                if (running.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+                order.add(3);
+                running.decrementAndGet();
+                return null;
+            }));
+            first.get(5, TimeUnit.SECONDS);
+            queued.get(5, TimeUnit.SECONDS);
+            later.get(5, TimeUnit.SECONDS);
+        } finally {
+            sessionExecutors.shutdown();
+        }
+
+        assertEquals(0, overlaps.get(), "Calls made after close must not overlap calls still queued");
+        assertEquals(List.of(1, 2, 3), order);
+        assertEquals(0, sessionExecutors.stats().get("sessions"), "The session's executor is dropped once drained");
+    }
+
+    private void runConcurrentSessions(SessionExecutors sessionExecutors, ExecutorService callers, String mode) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+        AtomicInteger overlaps = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peakRunning = new AtomicInteger();
+        List<Future<String>> calls = new ArrayList<>();
+
+        long start = System.nanoTime();
+        try (callers) {
+            for (int call = 0; call < CALLS_PER_SESSION; call++) {
+                for (int session = 0; session < SESSIONS; session++) {
+                    String sessionId = "session-" + session;
+                    calls.add(callers.submit(() -> sessionExecutors.call(sessionId, () -> {
+                        AtomicInteger sessionRunning = inFlight.computeIfAbsent(sessionId, id -> new AtomicInteger());
+                        if (sessionRunning.incrementAndGet() > 1) {
+                            overlaps.incrementAndGet();
+                        }
+                        peakRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        Thread.sleep(CALL_MILLIS);
+                        running.decrementAndGet();
+                        sessionRunning.decrementAndGet();
+                        return sessionId;
+                    })));
+                }
+            }
+            for (Future<String> call : calls) {
+                assertNotNull(call.get());
+            }
+        } finally {
+            sessionExecutors.shutdown();
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        assertEquals(0, overlaps.get(), "Calls of the same session must not overlap");
+        // only calls of different sessions can overlap, so more than one call at a time shows sessions run in parallel
+        assertTrue(peakRunning.get() > 1, "Sessions should run in parallel, peak concurrent calls: " + peakRunning.get());
+        logger.info("{}: {} calls in {} ms ({} calls/s), peak concurrent calls: {}, peak platform threads: {}", mode,
+                calls.size(), elapsedMillis, calls.size() * 1000 / elapsedMillis, peakRunning.get(), threads.getPeakThreadCount());
+    }
+}
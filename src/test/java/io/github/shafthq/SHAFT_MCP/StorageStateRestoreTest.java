@@ -0,0 +1,107 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfEnvironmentVariable;
+import org.openqa.selenium.JavascriptExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that a login saved from one browser is restored into a fresh browser of the same session, against a local
+ * HTTP server whose page shows the user kept in localStorage.
+ * A remote browser cannot reach the local server, so the test is skipped when a remote driver is configured.
+ */
+@SpringBootTest
+@DisabledIfEnvironmentVariable(named = "REMOTE_DRIVER_ADDRESS", matches = ".+")
+class StorageStateRestoreTest {
+    private static final Logger logger = LoggerFactory.getLogger(StorageStateRestoreTest.class);
+    private static final String SESSION_ID = "storage-state-agent";
+    private static HttpServer server;
+    private static String pageUrl;
+
+    @Autowired
+    private EngineService engineService;
+
+    @Autowired
+    private BrowserService browserService;
+
+    @Autowired
+    private StorageStateService storageStateService;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/account.html", exchange -> {
+            byte[] body = """
+                    <html><head><title>Account</title>
+                    <script>document.title = localStorage.getItem('user') || 'anonymous';</script>
+                    </head><body>Account</body></html>""".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream response = exchange.getResponseBody()) {
+                response.write(body);
+            }
+        });
+        server.start();
+        pageUrl = "http://localhost:" + server.getAddress().getPort() + "/account.html";
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        SessionContext.callWithin(SESSION_ID, () -> {
+            try {
+                engineService.quitDriver();
+            } catch (Exception e) {
+                logger.warn("Failed to quit driver in cleanup", e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Tests that cookies and localStorage saved by name are restored into a new browser of the same session, and that
+     * another session cannot restore them.
+     */
+    @Test
+    void testSavedLoginIsRestoredIntoAFreshBrowser() throws Exception {
+        SessionContext.callWithin(SESSION_ID, () -> {
+            engineService.initializeDriver(BrowserType.CHROME);
+            browserService.navigate(pageUrl);
+            browserService.addCookie("session", "token-123");
+            ((JavascriptExecutor) EngineService.getDriver().getDriver()).executeScript("localStorage.setItem('user', 'alice');");
+            storageStateService.saveStorageState("login", null);
+            engineService.quitDriver();
+
+            engineService.initializeDriver(BrowserType.CHROME);
+            browserService.navigate(pageUrl);
+            assertEquals("anonymous", browserService.getTitle(), "A fresh browser should not be logged in");
+
+            storageStateService.restoreStorageState("login", null);
+            assertEquals("alice", browserService.getTitle(), "The page should see the restored localStorage");
+            assertEquals("token-123", browserService.getCookie("session"));
+            return null;
+        });
+
+        assertThrows(IllegalArgumentException.class, () -> SessionContext.callWithin("other-agent",
+                () -> storageStateService.stored("login")), "Another session should not see the saved login");
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.shafthq.SHAFT_MCP;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the resolution of storage state files and the bounded in-memory store.
+ * These tests do not need a browser.
+ */
+class StorageStateServiceTest {
+    private final StorageStateService service = new StorageStateService("target/storage-states", false, "", 2);
+
+    /**
+     * Tests that relative paths are resolved under the storage state directory.
+     */
+    @Test
+    void testRelativePathIsResolvedUnderDirectory() {
+        Path directory = Path.of("target/storage-states").toAbsolutePath().normalize();
+
+        assertEquals(directory.resolve("shop/login.json"), service.resolve("shop/login.json"));
+    }
+
+    /**
+     * Tests that absolute paths and paths leaving the directory are rejected.
+     */
+    @Test
+    void testPathsOutsideDirectoryAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.resolve(Path.of("login.json").toAbsolutePath().toString()));
+        assertThrows(IllegalArgumentException.class, () -> service.resolve("../login.json"));
+        assertThrows(IllegalArgumentException.class, () -> service.resolve("shop/../../login.json"));
+    }
+
+    /**
+     * Tests that an encryption key of an invalid AES length is rejected at startup.
+     */
+    @Test
+    void testInvalidEncryptionKeyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new StorageStateService("target/storage-states", false, "c2hvcnQ=", 2));
+    }
+
+    /**
+     * Tests that a session only evicts its own least recently used snapshot, and that restoring an evicted snapshot
+     * fails with an error saying why.
+     */
+    @Test
+    void testEvictionIsLimitedToTheSavingSession() throws Exception {
+        SessionContext.callWithin("agent-b", () -> {
+            service.store("admin", state("b-admin"));
+            return null;
+        });
+        SessionContext.callWithin("agent-a", () -> {
+            service.store("first", state("a-first"));
+            service.store("second", state("a-second"));
+            service.stored("first");
+            service.store("third", state("a-third"));
+
+            assertEquals("a-first", service.stored("first").url(), "The recently restored snapshot should be kept");
+            assertEquals("a-third", service.stored("third").url());
+            IllegalArgumentException evicted = assertThrows(IllegalArgumentException.class, () -> service.stored("second"));
+            assertTrue(evicted.getMessage().contains("not found") && evicted.getMessage().contains("evicted"),
+                    "The error should say the snapshot may have been evicted, actual: " + evicted.getMessage());
+            assertThrows(IllegalArgumentException.class, () -> service.stored("admin"), "Other sessions' snapshots should not be visible");
+            return null;
+        });
+        SessionContext.callWithin("agent-b", () -> {
+            assertEquals("b-admin", service.stored("admin").url(), "Another session's snapshot should not be evicted");
+            return null;
+        });
+    }
+
+    private static StorageState state(String url) {
+        return new StorageState(StorageState.CURRENT_VERSION, "2026-01-01T00:00:00Z", url, "http://localhost", List.of(), Map.of(), Map.of());
+    }
+}